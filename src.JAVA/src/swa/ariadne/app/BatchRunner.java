@@ -0,0 +1,206 @@
+package swa.ariadne.app;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import swa.ariadne.logic.SolverStatistics;
+import swa.ariadne.logic.factory.SolverFactory;
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeCode;
+
+/**
+ * Generates and solves a series of mazes without any user interface.
+ * <p>
+ * For every seed in the given range, a maze is created and solved with the given strategy.
+ * One line with the maze code and the solver statistics is written per maze,
+ * followed by a summary with the generation and solving throughput.
+ * <p>
+ * Command line: <code>/b width height firstSeed lastSeed [codeVersion [strategy [outputFile]]]</code>
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class BatchRunner
+{
+    //--------------------- Constants
+
+    /** The command line syntax, after the /b switch. */
+    public static final String Usage = "/b width height firstSeed lastSeed [codeVersion [strategy [outputFile]]]";
+
+    /** Strategy name that selects a random solver type for every maze. */
+    public static final String AnyStrategy = "any";
+
+    /** Nanoseconds per second. */
+    private static final double NanosPerSecond = 1e9;
+
+    //--------------------- Member variables and Properties
+
+    /** Width of the mazes. */
+    private final int width;
+
+    /** Height of the mazes. */
+    private final int height;
+
+    /** The first seed (inclusive). */
+    private final int firstSeed;
+
+    /** The last seed (inclusive). */
+    private final int lastSeed;
+
+    /** Maze code version: 0 or 1. */
+    private final int codeVersion;
+
+    /** Name of the solver strategy, see {@link SolverFactory}. */
+    private final String strategyName;
+
+    /** Total number of steps of all solvers. */
+    private long totalSteps;
+
+    /** Total time spent in {@link Maze#createMaze()}. */
+    private long generationNanos;
+
+    /** Total time spent in solving the mazes. */
+    private long solvingNanos;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param width Width of the mazes.
+     * @param height Height of the mazes.
+     * @param firstSeed The first seed (inclusive).
+     * @param lastSeed The last seed (inclusive).
+     * @param codeVersion 0 or 1.
+     * @param strategyName Name of the solver strategy or {@link #AnyStrategy}.
+     */
+    public BatchRunner(int width, int height, int firstSeed, int lastSeed, int codeVersion, String strategyName)
+    {
+        if (codeVersion < 0 || codeVersion > MazeCode.DefaultCodeVersion)
+        {
+            throw new IllegalArgumentException("invalid code version: " + codeVersion);
+        }
+
+        int seedLimit = MazeCode.getInstance(codeVersion).getSeedLimit();
+        if (firstSeed < 0 || lastSeed < firstSeed || lastSeed >= seedLimit)
+        {
+            throw new IllegalArgumentException("seeds must satisfy 0 <= " + firstSeed + " <= " + lastSeed + " < " + seedLimit);
+        }
+
+        // Otherwise, a mistyped name would silently be replaced by random strategies.
+        if (!AnyStrategy.equals(strategyName) && !SolverFactory.isValidStrategyName(strategyName))
+        {
+            throw new IllegalArgumentException("unknown strategy: " + strategyName + "; Usage: " + Usage);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.firstSeed = firstSeed;
+        this.lastSeed = lastSeed;
+        this.codeVersion = codeVersion;
+        this.strategyName = strategyName;
+    }
+
+    //--------------------- Command line
+
+    /**
+     * Runs a batch with the given command line arguments.
+     * @param args The command line arguments, including the leading /b switch.
+     * @throws FileNotFoundException If the output file cannot be created.
+     */
+    public static void main(String[] args) throws FileNotFoundException
+    {
+        if (args.length < 5 || args.length > 8)
+        {
+            throw new IllegalArgumentException("Usage: " + Usage);
+        }
+
+        int width = Integer.parseInt(args[1]);
+        int height = Integer.parseInt(args[2]);
+        int firstSeed = Integer.parseInt(args[3]);
+        int lastSeed = Integer.parseInt(args[4]);
+        int codeVersion = (args.length > 5 ? Integer.parseInt(args[5]) : MazeCode.DefaultCodeVersion);
+        String strategyName = (args.length > 6 ? args[6] : SolverFactory.DefaultStrategy);
+
+        BatchRunner runner = new BatchRunner(width, height, firstSeed, lastSeed, codeVersion, strategyName);
+
+        if (args.length > 7)
+        {
+            PrintStream out = new PrintStream(args[7]);
+            try
+            {
+                runner.run(out);
+            }
+            finally
+            {
+                out.close();
+            }
+            runner.printSummary(System.out);
+        }
+        else
+        {
+            runner.run(System.out);
+        }
+    }
+
+    //--------------------- Running
+
+    /**
+     * Generates and solves all mazes and writes one line per maze and a summary to the given stream.
+     * @param out The output stream.
+     */
+    public void run(PrintStream out)
+    {
+        totalSteps = generationNanos = solvingNanos = 0;
+
+        out.println("# code\tseed\twidth\theight\tsteps\tforward\tvisited\tsolver");
+
+        for (int seed = firstSeed; seed <= lastSeed; seed++)
+        {
+            long t0 = System.nanoTime();
+
+            Maze maze = new Maze(width, height, codeVersion, seed);
+            maze.createMaze();
+
+            long t1 = System.nanoTime();
+
+            SolverStatistics stats = SolverFactory.solveAndMeasure(maze, AnyStrategy.equals(strategyName) ? null : strategyName);
+
+            generationNanos += t1 - t0;
+            solvingNanos += stats.getNanos();
+            totalSteps += stats.getSteps();
+
+            out.println(maze.getCode() + "\t" + seed + "\t" + maze.getXSize() + "\t" + maze.getYSize()
+                      + "\t" + stats.getSteps() + "\t" + stats.getForwardSteps() + "\t" + stats.getVisitedSquares()
+                      + "\t" + stats.getStrategyName());
+        }
+
+        printSummary(out);
+    }
+
+    /**
+     * Writes the throughput of the last {@link #run(PrintStream)}.
+     * @param out The output stream.
+     */
+    public void printSummary(PrintStream out)
+    {
+        int count = lastSeed - firstSeed + 1;
+
+        out.println(String.format(Locale.ROOT, "# mazes: %d, generation: %.3f s, %.1f mazes/s",
+            count, generationNanos / NanosPerSecond, rate(count, generationNanos)));
+        out.println(String.format(Locale.ROOT, "# steps: %d, solving: %.3f s, %.1f steps/s",
+            totalSteps, solvingNanos / NanosPerSecond, rate(totalSteps, solvingNanos)));
+    }
+
+    //--------------------- Auxiliary Methods
+
+    /**
+     * @param count Number of items.
+     * @param nanos Time in nanoseconds.
+     * @return Number of items per second.
+     */
+    private static double rate(long count, long nanos)
+    {
+        return (nanos > 0 ? count * NanosPerSecond / nanos : 0);
+    }
+}
@@ -0,0 +1,84 @@
+package swa.ariadne.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import swa.ariadne.gui.maze.MazeGeometry;
+import swa.ariadne.gui.maze.MazeImageRenderer;
+import swa.ariadne.model.MazeBatchGenerator;
+import swa.ariadne.model.MazeCode;
+
+/**
+ * Generates a series of mazes and writes them as image files without any user interface.
+ * <p>
+ * For every seed in the given range, a maze is created and rendered by a {@link MazeImageRenderer}.
+ * The mazes are generated, rendered and written in parallel.
+ * The file names are the maze codes; a summary with the throughput is written to the standard output.
+ * <p>
+ * Command line: <code>/i width height firstSeed lastSeed directory [gridWidth [codeVersion [withSolution]]]</code>
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class ImageExporter
+{
+    //--------------------- Constants
+
+    /** The command line syntax, after the /i switch. */
+    public static final String Usage = "/i width height firstSeed lastSeed directory [gridWidth [codeVersion [withSolution]]]";
+
+    /** Grid width used when none is given: {@value}. */
+    public static final int DefaultGridWidth = 10;
+
+    /** Nanoseconds per second. */
+    private static final double NanosPerSecond = 1e9;
+
+    //--------------------- Command line
+
+    /**
+     * Exports a series of mazes with the given command line arguments.
+     * @param args The command line arguments, including the leading /i switch.
+     * @throws IOException If an image file cannot be written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 6 || args.length > 9)
+        {
+            throw new IllegalArgumentException("Usage: " + Usage);
+        }
+
+        int width = Integer.parseInt(args[1]);
+        int height = Integer.parseInt(args[2]);
+        int firstSeed = Integer.parseInt(args[3]);
+        int lastSeed = Integer.parseInt(args[4]);
+        File directory = new File(args[5]);
+        int gridWidth = (args.length > 6 ? Integer.parseInt(args[6]) : DefaultGridWidth);
+        int codeVersion = (args.length > 7 ? Integer.parseInt(args[7]) : MazeCode.DefaultCodeVersion);
+        boolean withSolution = (args.length > 8 && Boolean.parseBoolean(args[8]));
+
+        if (gridWidth < MazeGeometry.MinGridWidth || gridWidth > MazeGeometry.MaxGridWidth)
+        {
+            throw new IllegalArgumentException("grid width must satisfy " + MazeGeometry.MinGridWidth + " <= " + gridWidth + " <= " + MazeGeometry.MaxGridWidth);
+        }
+        if (lastSeed < firstSeed)
+        {
+            throw new IllegalArgumentException("seeds must satisfy " + firstSeed + " <= " + lastSeed);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("cannot create directory: " + directory);
+        }
+
+        MazeBatchGenerator generator = new MazeBatchGenerator(width, height, codeVersion);
+        MazeImageRenderer renderer = new MazeImageRenderer(new MazeGeometry(gridWidth, true));
+        int count = lastSeed - firstSeed + 1;
+
+        long t0 = System.nanoTime();
+        renderer.writeAll(generator, MazeBatchGenerator.consecutiveSeeds(firstSeed, count), directory, withSolution);
+        long nanos = System.nanoTime() - t0;
+
+        System.out.println(String.format(Locale.ROOT, "# images: %d, time: %.3f s, %.1f images/s",
+            count, nanos / NanosPerSecond, (nanos > 0 ? count * NanosPerSecond / nanos : 0)));
+    }
+}
@@ -13,8 +13,9 @@ public class Program {
 
     /**
      * @param args
+     * @throws Exception
      */
-    public static void main(String[] args)
+    public static void main(String[] args) throws Exception
     {
         if (args.length > 0 && args[0].charAt(0) == '/')
         {
@@ -22,6 +23,16 @@ public class Program {
             char arg = args[0].toLowerCase().trim().charAt(1);
             switch (arg)
             {
+                case 'b':
+                    // Generate and solve a batch of mazes without opening a window.
+                    System.setProperty("java.awt.headless", "true");
+                    BatchRunner.main(args);
+                    break;
+                case 'i':
+                    // Generate a batch of mazes and write them as images without opening a window.
+                    System.setProperty("java.awt.headless", "true");
+                    ImageExporter.main(args);
+                    break;
                 /* TODO
                 case "/c":
                     // Show the options dialog
@@ -0,0 +1,59 @@
+package swa.ariadne.benchmarks;
+
+/**
+ * A single measurable operation, executed repeatedly by the {@link BenchmarkRunner}.
+ * <p>
+ * The {@link Benchmarks} class provides constructor-like methods for all benchmarks.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public abstract
+class Benchmark
+{
+    //--------------------- Member variables and Properties
+
+    /** The name of this benchmark: stage and variant. */
+    private final String name;
+
+    /** @return The name of this benchmark: stage and variant. */
+    public String getName()
+    {
+        return name;
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param name The name of this benchmark.
+     */
+    protected Benchmark(String name)
+    {
+        this.name = name;
+    }
+
+    //--------------------- Benchmark methods
+
+    /**
+     * Prepares the state used by all invocations of {@link #run()}.
+     * The time spent here is not measured.
+     */
+    public void setUp()
+    {
+        // no action
+    }
+
+    /**
+     * Executes the measured operation once.
+     * @return Some result of the operation; it is consumed by the runner so that the work cannot be eliminated.
+     */
+    public abstract Object run();
+
+    //--------------------- Auxiliary methods
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
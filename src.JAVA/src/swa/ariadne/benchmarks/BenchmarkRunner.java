@@ -0,0 +1,147 @@
+package swa.ariadne.benchmarks;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Executes {@link Benchmark Benchmarks} and reports their throughput.
+ * <p>
+ * Every benchmark runs a number of warmup iterations followed by a number of measurement iterations.
+ * An iteration repeats the operation for a fixed time; the result is the number of operations per second.
+ * <p>
+ * Command line: <code>[filter [iterationMillis]]</code>;
+ * only benchmarks whose name contains the filter string are executed.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class BenchmarkRunner
+{
+    //--------------------- Constants
+
+    /** Number of iterations that are not measured. */
+    private static final int WarmupIterations = 3;
+
+    /** Number of measured iterations. */
+    private static final int MeasurementIterations = 5;
+
+    /** Default duration of a single iteration. */
+    private static final int DefaultIterationMillis = 1000;
+
+    /** Nanoseconds per millisecond. */
+    private static final long NanosPerMilli = 1000000L;
+
+    //--------------------- Member variables and Properties
+
+    /** Duration of a single iteration, in nanoseconds. */
+    private final long iterationNanos;
+
+    /**
+     * Receives the result of every operation, so that the JIT compiler cannot eliminate the work.
+     */
+    private static volatile Object sink;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param iterationMillis Duration of a single iteration, in milliseconds.
+     */
+    public BenchmarkRunner(int iterationMillis)
+    {
+        this.iterationNanos = iterationMillis * NanosPerMilli;
+    }
+
+    //--------------------- Command line
+
+    /**
+     * Runs all benchmarks matching the optional filter argument.
+     * @param args [filter [iterationMillis]]
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+
+        String filter = (args.length > 0 ? args[0] : "");
+        int iterationMillis = (args.length > 1 ? Integer.parseInt(args[1]) : DefaultIterationMillis);
+
+        BenchmarkRunner runner = new BenchmarkRunner(iterationMillis);
+        runner.run(Benchmarks.all(), filter, System.out);
+    }
+
+    //--------------------- Running
+
+    /**
+     * Runs the given benchmarks and writes one result line for each of them.
+     * @param benchmarks The benchmarks.
+     * @param filter Only benchmarks whose name contains this string are executed.
+     * @param out The output stream.
+     */
+    public void run(List<Benchmark> benchmarks, String filter, PrintStream out)
+    {
+        out.println(String.format(Locale.ROOT, "%-40s %14s %10s %14s", "Benchmark", "ops/s", "error", "us/op"));
+
+        for (Benchmark b : benchmarks)
+        {
+            if (b.getName().contains(filter))
+            {
+                double[] result = measure(b);
+                out.println(String.format(Locale.ROOT, "%-40s %14.2f %10.2f %14.2f", b.getName(), result[0], result[1], 1e6 / result[0]));
+            }
+        }
+    }
+
+    /**
+     * @param b A benchmark.
+     * @return Mean value and standard deviation of the throughput in all measured iterations, in ops/s.
+     */
+    public double[] measure(Benchmark b)
+    {
+        b.setUp();
+
+        for (int i = 0; i < WarmupIterations; i++)
+        {
+            iterate(b);
+        }
+
+        double[] samples = new double[MeasurementIterations];
+        double sum = 0;
+        for (int i = 0; i < samples.length; i++)
+        {
+            samples[i] = iterate(b);
+            sum += samples[i];
+        }
+
+        double mean = sum / samples.length;
+        double variance = 0;
+        for (double s : samples)
+        {
+            variance += (s - mean) * (s - mean);
+        }
+        variance /= (samples.length - 1);
+
+        return new double[] { mean, Math.sqrt(variance) };
+    }
+
+    /**
+     * Repeats the operation until the iteration time has elapsed.
+     * @param b A benchmark.
+     * @return The number of operations per second.
+     */
+    private double iterate(Benchmark b)
+    {
+        long count = 0;
+        long t0 = System.nanoTime(), t;
+
+        do
+        {
+            sink = b.run();
+            ++count;
+            t = System.nanoTime();
+        }
+        while (t - t0 < iterationNanos);
+
+        return count * 1e9 / (t - t0);
+    }
+}
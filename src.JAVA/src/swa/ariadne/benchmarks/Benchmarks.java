@@ -0,0 +1,302 @@
+package swa.ariadne.benchmarks;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import swa.ariadne.gui.images.ContourImage;
+import swa.ariadne.logic.IMazeSolver;
+import swa.ariadne.logic.factory.SolverFactory;
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeArchive;
+import swa.ariadne.model.MazeCode;
+import swa.ariadne.model.MazeDimensions;
+import swa.ariadne.outlines.ExplicitOutlineShape;
+import swa.ariadne.outlines.OutlineShape;
+import swa.ariadne.outlines.OutlineShapeConstructor;
+import swa.ariadne.outlines.OutlineShapeFactory;
+import swa.ariadne.outlines.OutlineShapes;
+
+/**
+ * Provides constructor-like methods for all {@link Benchmark} objects, one or more per processing stage.
+ * <p>
+ * All benchmarks use fixed seeds so that every invocation performs the same amount of work.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class Benchmarks
+{
+    //--------------------- Constants
+
+    /** The seed used for all mazes and random shapes. */
+    private static final int Seed = 4711;
+
+    /** Size of the outline shapes: a medium sized maze. */
+    private static final Dimension ShapeSize = new Dimension(120, 90);
+
+    /** Size of the image analyzed by the ContourImageScanner. */
+    private static final Dimension ImageSize = new Dimension(400, 300);
+
+    //--------------------- Collection of all benchmarks
+
+    /**
+     * @return All benchmarks, in the order of the processing stages.
+     */
+    public static List<Benchmark> all()
+    {
+        List<Benchmark> result = new ArrayList<Benchmark>();
+        MazeDimensions dimensionsObj = MazeDimensions.getInstance(MazeCode.DefaultCodeVersion);
+
+        int[][] sizes = {
+            { dimensionsObj.getMinSize(), dimensionsObj.getMinSize() },
+            { ShapeSize.width, ShapeSize.height },
+            { dimensionsObj.getMaxXSize(), dimensionsObj.getMaxYSize() },
+        };
+
+        for (int[] size : sizes)
+        {
+            result.add(CreateMaze(size[0], size[1]));
+        }
+        for (int[] size : sizes)
+        {
+            result.add(LoadMaze(size[0], size[1]));
+        }
+
+        for (Type t : SolverFactory.getSolverTypes())
+        {
+            result.add(Solve(((Class<?>) t).getSimpleName(), ShapeSize.width, ShapeSize.height));
+        }
+        for (Type t : SolverFactory.getSolverTypes())
+        {
+            if (SolverFactory.hasEfficientVariant(t))
+            {
+                result.add(Solve(SolverFactory.EfficientPrefix + ((Class<?>) t).getSimpleName(), ShapeSize.width, ShapeSize.height));
+            }
+        }
+
+        result.add(CreateOutlineShape("Function", OutlineShapes.Function()));
+        result.add(CreateOutlineShape("Grid", OutlineShapes.Grid()));
+        result.add(CreateOutlineShape("Tiles", OutlineShapes.Tiles()));
+        result.add(CreateOutlineShape("Maze", OutlineShapes.Maze()));
+
+        result.add(MakeConnectedSubset());
+        result.add(MakeClosure());
+
+        result.add(ScanContourImage());
+
+        return result;
+    }
+
+    //--------------------- Maze generation
+
+    /**
+     * @param width Width of the maze.
+     * @param height Height of the maze.
+     * @return A benchmark of {@link Maze#createMaze()}.
+     */
+    public static Benchmark CreateMaze(final int width, final int height)
+    {
+        return new Benchmark("createMaze " + width + "x" + height)
+        {
+            @Override
+            public Object run()
+            {
+                Maze maze = new Maze(width, height, MazeCode.DefaultCodeVersion, Seed);
+                maze.createMaze();
+                return maze;
+            }
+        };
+    }
+
+    /**
+     * @param width Width of the maze.
+     * @param height Height of the maze.
+     * @return A benchmark of {@link MazeArchive#getMaze(int)}, loading the maze built by {@link #CreateMaze(int, int)}.
+     */
+    public static Benchmark LoadMaze(final int width, final int height)
+    {
+        return new Benchmark("loadMaze " + width + "x" + height)
+        {
+            /** The archive is written only once. */
+            private MazeArchive archive;
+
+            @Override
+            public void setUp()
+            {
+                Maze maze = new Maze(width, height, MazeCode.DefaultCodeVersion, Seed);
+                maze.createMaze();
+
+                try
+                {
+                    File file = File.createTempFile("ariadne", ".maze");
+                    file.deleteOnExit();
+                    MazeArchive.write(file, Collections.singletonList(maze));
+                    archive = MazeArchive.open(file);
+                }
+                catch (IOException e)
+                {
+                    throw new Error(e);
+                }
+            }
+
+            @Override
+            public Object run()
+            {
+                return archive.getMaze(0);
+            }
+        };
+    }
+
+    //--------------------- Solving
+
+    /**
+     * @param strategyName Name of a solver strategy, see {@link SolverFactory}.
+     * @param width Width of the maze.
+     * @param height Height of the maze.
+     * @return A benchmark of {@link IMazeSolver#solve()}, applied to the same maze repeatedly.
+     */
+    public static Benchmark Solve(final String strategyName, final int width, final int height)
+    {
+        return new Benchmark("solve " + strategyName + " " + width + "x" + height)
+        {
+            /** The maze is created only once and reset before every invocation. */
+            private Maze maze;
+
+            @Override
+            public void setUp()
+            {
+                maze = new Maze(width, height, MazeCode.DefaultCodeVersion, Seed);
+                maze.createMaze();
+            }
+
+            @Override
+            public Object run()
+            {
+                maze.reset();
+                IMazeSolver solver = SolverFactory.createSolver(strategyName, maze, null);
+                solver.solve();
+                return solver;
+            }
+        };
+    }
+
+    //--------------------- Outline shapes
+
+    /**
+     * @param shapeName Name of the shape type.
+     * @param constructor One of the {@link OutlineShapes} constructors.
+     * @return A benchmark of the construction and full evaluation of the given shape type.
+     */
+    public static Benchmark CreateOutlineShape(String shapeName, final OutlineShapeConstructor constructor)
+    {
+        return new Benchmark("outline " + shapeName)
+        {
+            @Override
+            public Object run()
+            {
+                OutlineShape shape = OutlineShapeFactory.createShape(new Random(Seed), constructor, ShapeSize, 0.0, 1.0);
+
+                // Some shapes are evaluated lazily; visit every point once.
+                return shape.getArea();
+            }
+        };
+    }
+
+    /**
+     * @return A benchmark of {@link ExplicitOutlineShape#makeConnectedSubset(swa.ariadne.outlines.IOutlineShape, swa.ariadne.outlines.IOutlineShape)}.
+     */
+    public static Benchmark MakeConnectedSubset()
+    {
+        return new Benchmark("outline makeConnectedSubset")
+        {
+            /** The template shape. */
+            private OutlineShape template;
+
+            @Override
+            public void setUp()
+            {
+                template = OutlineShapeFactory.createShape(new Random(Seed), OutlineShapes.Grid(), ShapeSize, 0.0, 1.0);
+            }
+
+            @Override
+            public Object run()
+            {
+                return ExplicitOutlineShape.makeConnectedSubset(template, null);
+            }
+        };
+    }
+
+    /**
+     * @return A benchmark of {@link ExplicitOutlineShape#makeClosure(OutlineShape, swa.ariadne.outlines.IOutlineShape)}.
+     */
+    public static Benchmark MakeClosure()
+    {
+        return new Benchmark("outline makeClosure")
+        {
+            /** The template shape. */
+            private OutlineShape template;
+
+            @Override
+            public void setUp()
+            {
+                template = OutlineShapeFactory.createShape(new Random(Seed), OutlineShapes.Grid(), ShapeSize, 0.0, 1.0);
+            }
+
+            @Override
+            public Object run()
+            {
+                return ExplicitOutlineShape.makeClosure(template, null);
+            }
+        };
+    }
+
+    //--------------------- Contour images
+
+    /**
+     * @return A benchmark of {@link ContourImage#processImage()}, applied to a synthetic image with a single object.
+     * Most of the time is spent in the ContourImageScanner's scan() method.
+     */
+    public static Benchmark ScanContourImage()
+    {
+        return new Benchmark("contour image " + ImageSize.width + "x" + ImageSize.height)
+        {
+            /** An image with a dark object on a light background. */
+            private BufferedImage image;
+
+            @Override
+            public void setUp()
+            {
+                image = new BufferedImage(ImageSize.width, ImageSize.height, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, ImageSize.width, ImageSize.height);
+                g.setColor(Color.DARK_GRAY);
+                g.fillOval(ImageSize.width / 8, ImageSize.height / 8, ImageSize.width / 2, ImageSize.height / 2);
+                g.fillRoundRect(ImageSize.width / 3, ImageSize.height / 3, ImageSize.width / 2, ImageSize.height / 2, 40, 40);
+                g.dispose();
+
+                // Otherwise, the image is not analyzed at all.
+                ContourImage.setDisplayProcessedImage(true);
+            }
+
+            @Override
+            public Object run()
+            {
+                ContourImage result = new ContourImage(image, null);
+                result.processImage();
+                return result;
+            }
+        };
+    }
+}
@@ -1,16 +1,40 @@
 package swa.ariadne.ctrl;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.Date;
-import java.util.Timer;
-import java.util.TimerTask;
+
+import javax.swing.Timer;
+
+import swa.ariadne.settings.RegisteredOptions;
 
 /**
  * Controls the timing and other activities of the running solver and painter.
+ * <p>
+ * The stepTimer fires on the event dispatch thread, which is also where the maze is painted.
+ * All methods must be called on the event dispatch thread, as well.
+ * <p>
+ * Normally, the solver is called on the event dispatch thread, too.
+ * With the {@link RegisteredOptions#OPT_BACKGROUND_SOLVER} option, the solver runs on a worker thread
+ * and modifies the maze's VisitedSet while the maze is painted; see {@link BackgroundSolver}.
+ * Then the painter learns about the solver's steps only through the StepQueue.
+ * During the solve, the event dispatch thread reads only the maze's grid and walls,
+ * which are not changed by the solver, and the visited flag of the target square,
+ * which may already be set before all steps have been painted.
+ * IsFinished() consults the maze only after the worker thread has terminated.
  * 
  * @author Stephan.Wacker@web.de
  */
 public class AriadneController
 {
+    //--------------------- Constants
+
+    /** Frame rate of the stepTimer: {@value}. */
+    private static final int FramesPerSecond = 60;
+
+    /** Maximum number of steps per second: {@value}. */
+    private static final int MaxStepsPerSecond = 40000;
+
     //--------------------- Member Variables and Properties
 
     /** The object that is in charge of the application. */
@@ -35,6 +59,15 @@ public class AriadneController
     /** Time when start or pause button was pressed. */
     private Date lapStartTime;
 
+    /** The intended solver speed. */
+    private int stepsPerSecond;
+
+    /** System.nanoTime() when the current lap was started. */
+    private long lapStartNanos;
+
+    /** Number of steps that have been due (performed or skipped) in the current lap. */
+    private long lapSteps;
+
     //--------------------- Constructor and Initialization
 
     /**
@@ -47,10 +80,8 @@ public class AriadneController
         this.client = client;
         this.solverController = solverController;
 
-        /* TODO
         stepsPerSecond = RegisteredOptions.GetIntSetting(RegisteredOptions.OPT_STEPS_PER_SECOND);
-        stepsPerSecond = Math.min(40000, Math.max(1, stepsPerSecond));
-        */
+        stepsPerSecond = Math.min(MaxStepsPerSecond, Math.max(1, stepsPerSecond));
     }
 
     //--------------------- Control commands corresponding to AriadneFrameBase events
@@ -75,7 +106,7 @@ public class AriadneController
     {
         if (stepTimer != null)
         {
-            stepTimer.cancel();
+            stepTimer.stop();
             stepTimer = null;
         }
         /* TODO
@@ -100,13 +131,15 @@ public class AriadneController
     public void Start()
     {
         //Log.WriteLine("{ Start()");
-        stepTimer = new Timer();
+        stepTimer = new Timer(1000 / FramesPerSecond, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                OnStepTimer();
+            }
+        });
         stepTimerPaused = false;
-        /* TODO
-        stepTimer.Interval = (1000/60); // 60 frames per second
-        stepTimer.Tick += new EventHandler(this.OnStepTimer);
-        stepTimer.Start();
-        */
 
         /* TODO
         blinkTimer = new Timer();
@@ -124,6 +157,10 @@ public class AriadneController
         // TODO this.finishedStrategyName = solverController.StrategyName;
 
         lapStartTime = new Date(); // TODO: now
+        startLap();
+
+        stepTimer.setInitialDelay(0);
+        stepTimer.start();
         //Log.WriteLine("} Start()");
     }
 
@@ -137,6 +174,7 @@ public class AriadneController
 
         if (State() == SolverState.Running)
         {
+            startLap();
             /* TODO
             accumulatedSeconds += lapSeconds;
             lapSeconds = 0;
@@ -160,6 +198,43 @@ public class AriadneController
         */
     }
     
+    //--------------------- Timer Event Handlers
+
+    /**
+     * Performs all steps that are due since the last timer event.
+     * The solver steps are collected and painted as a single batch.
+     */
+    private void OnStepTimer()
+    {
+        if (stepTimerPaused || (client != null && !client.Alive()))
+        {
+            return;
+        }
+
+        if (solverController.IsFinished())
+        {
+            Stop();
+            return;
+        }
+
+        long due = (System.nanoTime() - lapStartNanos) * stepsPerSecond / 1000000000L - lapSteps;
+
+        // If the solver or painter cannot keep up, the remaining steps are skipped.
+        int n = (int) Math.min(due, MaxStepsPerSecond / FramesPerSecond);
+        lapSteps += due;
+
+        solverController.DoSteps(n);
+    }
+
+    /**
+     * Restarts the step rate computation.
+     */
+    private void startLap()
+    {
+        lapStartNanos = System.nanoTime();
+        lapSteps = 0;
+    }
+
     //--------------------- Solver State
 
     /**
@@ -0,0 +1,143 @@
+package swa.ariadne.ctrl;
+
+import java.util.concurrent.locks.LockSupport;
+
+import swa.ariadne.logic.IMazeSolver;
+import swa.ariadne.logic.StepBuffer;
+import swa.ariadne.logic.StepQueue;
+
+/**
+ * Runs a {@link IMazeSolver MazeSolver} on a dedicated worker thread.
+ * <p>
+ * The solver's steps are published in a {@link StepQueue}; the painter drains it at its own pace.
+ * When the queue is full, the worker waits until the painter has caught up.
+ * Thus, the solver may run ahead of the painter by no more than the queue's capacity.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+final
+class BackgroundSolver
+implements Runnable
+{
+    //--------------------- Constants
+
+    /** Number of steps the solver performs before they are published: {@value}. */
+    private static final int BatchSize = 256;
+
+    /** Capacity of the step queue: {@value}. */
+    private static final int QueueCapacity = 1 << 16;
+
+    /** Waiting time while the queue is full: {@value} nanoseconds. */
+    private static final long ParkNanos = 1000000L;
+
+    //--------------------- Member variables and Properties
+
+    /** The solver; only used by the worker thread. */
+    private final IMazeSolver solver;
+
+    /** The steps, passed from the worker to the painter. */
+    private final StepQueue queue = new StepQueue(QueueCapacity);
+
+    /** The worker thread. */
+    private final Thread thread;
+
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * The worker thread is not yet started.
+     * @param solver A solver; from now on, it is only used by the worker thread.
+     */
+    BackgroundSolver(IMazeSolver solver)
+    {
+        this.solver = solver;
+        this.thread = new Thread(this, "Ariadne background solver");
+        this.thread.setDaemon(true);
+    }
+
+    //--------------------- Thread control
+
+    /**
+     * Starts the worker thread.
+     */
+    void start()
+    {
+        thread.start();
+    }
+
+    /**
+     * Stops the worker thread and waits until it has terminated.
+     */
+    void stop()
+    {
+        thread.interrupt();
+
+        boolean interrupted = false;
+        while (thread.isAlive())
+        {
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return True if all steps of the solved maze have been taken from the queue.
+     */
+    boolean isDrained()
+    {
+        // Note: Check the thread first; it has published all its steps before it terminates.
+        return !thread.isAlive() && queue.isEmpty();
+    }
+
+    //--------------------- Painter side
+
+    /**
+     * Takes steps from the queue.
+     * Only the painter thread may call this method.
+     * @param out The steps are appended to this buffer.
+     * @param maxSteps The maximum number of solver steps.
+     * @return The number of solver steps; less than maxSteps if the solver has not yet made more steps.
+     * @see StepQueue#poll(StepBuffer, int)
+     */
+    int poll(StepBuffer out, int maxSteps)
+    {
+        return queue.poll(out, maxSteps);
+    }
+
+    //--------------------- Runnable implementation
+
+    @Override
+    public void run()
+    {
+        StepBuffer steps = new StepBuffer(BatchSize);
+
+        while (!Thread.currentThread().isInterrupted())
+        {
+            if (steps.isEmpty())
+            {
+                if (solver.isSolved())
+                {
+                    break;
+                }
+                solver.step(BatchSize, steps);
+            }
+
+            if (queue.offer(steps) == 0)
+            {
+                // The queue is full; wait for the painter.
+                LockSupport.parkNanos(ParkNanos);
+            }
+        }
+    }
+}
@@ -10,7 +10,14 @@ public interface ISolverController
     void resetBlinkingCounter();
     void advanceBlinkingCounter();
     //long CountSteps();
-    //int DoStep();
+
+    /**
+     * Performs a number of solver steps and paints them as a single batch.
+     * @param maxSteps The maximum number of steps.
+     * @return The number of steps; less than maxSteps if the maze has been solved
+     * or, with a background solver, if the solver has not yet made more steps.
+     */
+    int DoSteps(int maxSteps);
 
     /**
      * Write status information to the given StringBuilder.
@@ -4,9 +4,11 @@ import java.util.List;
 
 import swa.ariadne.gui.maze.*;
 import swa.ariadne.logic.IMazeSolver;
+import swa.ariadne.logic.StepBuffer;
 import swa.ariadne.logic.factory.SolverFactory;
 import swa.ariadne.model.Maze;
 import swa.ariadne.model.MazeSquare;
+import swa.ariadne.settings.RegisteredOptions;
 
 /**
  * A controller for a {@link IMazeSolver MazeSolver} and a {@link MazeCanvas}.
@@ -34,6 +36,15 @@ implements ISolverController
     /** The path that will be highlighted when the solution is complete. */
     private List<MazeSquare> solutionPath;
 
+    /** The steps collected in one DoSteps() call; reused for all batches. */
+    private final StepBuffer steps = new StepBuffer(1024);
+
+    /**
+     * When the solver runs on a worker thread: the object that controls it.
+     * Otherwise, the solver is called directly by DoSteps().
+     */
+    private BackgroundSolver backgroundSolver;
+
     /**
      *  @return The maze we are working with.
      *  @see MazePainter#getMaze()
@@ -75,6 +86,12 @@ implements ISolverController
     @Override
     public void ReleaseResources()
     {
+        if (backgroundSolver != null)
+        {
+            backgroundSolver.stop();
+            backgroundSolver = null;
+        }
+
         /* TODO
         solver = null;
         solutionPath = null;
@@ -135,12 +152,38 @@ implements ISolverController
         {
             PrepareForStart();
         }
+        if (RegisteredOptions.GetBoolSetting(RegisteredOptions.OPT_BACKGROUND_SOLVER))
+        {
+            backgroundSolver = new BackgroundSolver(solver);
+            backgroundSolver.start();
+        }
         if (mazeForm != null)
         {
             mazeForm.updateCaption();
         }
     }
 
+    @Override
+    public int DoSteps(int maxSteps)
+    {
+        if (solver == null || maxSteps <= 0)
+        {
+            return 0;
+        }
+
+        // Take the steps from the worker thread or let the solver make them now.
+        int result = (backgroundSolver != null
+            ? backgroundSolver.poll(steps, maxSteps)
+            : solver.step(maxSteps, steps)
+            );
+
+        // Paint all steps of this frame at once.
+        mazePainter.drawSteps(steps);
+        mazePainter.renderBufferedGraphics();
+
+        return result;
+    }
+
     @Override
     public boolean IsFinished()
     {
@@ -151,7 +194,12 @@ implements ISolverController
             // TODO: Avoid this quirk.
             return true;
         }
-        else */ if (Maze() != null)
+        else */ if (backgroundSolver != null && !backgroundSolver.isDrained())
+        {
+            // Some steps of the worker thread have not been painted yet.
+            return false;
+        }
+        else if (Maze() != null)
         {
             return Maze().isFinished();
         }
@@ -98,7 +98,7 @@ class ScanLines
 
         for (int i = 0; i < height; i++)
         {
-            data.set(i, new ScanLine(width, bothTerminators));
+            data.add(new ScanLine(width, bothTerminators));
         }
     }
 
@@ -123,7 +123,7 @@ class ScanLines
 
         for (int i = 0; i < height; i++)
         {
-            result.data.set(i, this.data.get(i).emptyClone());
+            result.data.add(this.data.get(i).emptyClone());
         }
 
         return result;
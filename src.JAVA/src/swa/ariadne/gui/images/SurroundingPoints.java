@@ -44,6 +44,13 @@ final class SurroundingPoints
     SurroundingPoints()
     {
         this.data = new RelativePointCollection[8][8];
+        for (int nbL = 0; nbL < 8; nbL++)
+        {
+            for (int nbR = 0; nbR < 8; nbR++)
+            {
+                this.data[nbL][nbR] = new RelativePointCollection();
+            }
+        }
     }
 
 
@@ -0,0 +1,168 @@
+package swa.ariadne.gui.maze;
+
+/**
+ * The parts of the {@link MazePainter}'s buffer that have changed since they were last copied to the screen.
+ * <p>
+ * Painted rectangles are merged into a few bounding boxes, so that a frame is copied with a small number of blits.
+ * A rectangle is merged into the box that grows least; a new box is started only if every union would be mostly empty.
+ * The boxes are kept in primitive arrays; adding a rectangle does not allocate.
+ * Like its MazePainter, a DirtyRegion is only used on the event dispatch thread and needs no synchronization.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+final
+class DirtyRegion
+{
+    //--------------------- Constants
+
+    /** Maximum number of bounding boxes: {@value}. */
+    static final int MaxBoxes = 4;
+
+    //--------------------- Member variables and Properties
+
+    /** For every box: left edge. */
+    private final int[] left = new int[MaxBoxes];
+
+    /** For every box: top edge. */
+    private final int[] top = new int[MaxBoxes];
+
+    /** For every box: right edge (exclusive). */
+    private final int[] right = new int[MaxBoxes];
+
+    /** For every box: bottom edge (exclusive). */
+    private final int[] bottom = new int[MaxBoxes];
+
+    /** Number of boxes. */
+    private int size = 0;
+
+    /** True if the whole buffer is dirty. */
+    private boolean all = false;
+
+    /** @return Number of bounding boxes; irrelevant if {@link #isAll()}. */
+    int size()
+    {
+        return size;
+    }
+
+    /** @return True if nothing has changed. */
+    boolean isEmpty()
+    {
+        return size == 0 && !all;
+    }
+
+    /** @return True if the whole buffer has changed. */
+    boolean isAll()
+    {
+        return all;
+    }
+
+    //--------------------- Queries
+
+    /**
+     * @param k A box, between 0 and {@link #size()} (exclusive).
+     * @return The left edge.
+     */
+    int getX(int k)
+    {
+        return left[k];
+    }
+
+    /**
+     * @param k A box, between 0 and {@link #size()} (exclusive).
+     * @return The top edge.
+     */
+    int getY(int k)
+    {
+        return top[k];
+    }
+
+    /**
+     * @param k A box, between 0 and {@link #size()} (exclusive).
+     * @return The width.
+     */
+    int getWidth(int k)
+    {
+        return right[k] - left[k];
+    }
+
+    /**
+     * @param k A box, between 0 and {@link #size()} (exclusive).
+     * @return The height.
+     */
+    int getHeight(int k)
+    {
+        return bottom[k] - top[k];
+    }
+
+    //--------------------- Modifiers
+
+    /**
+     * Adds a painted rectangle.
+     * @param x Left edge.
+     * @param y Top edge.
+     * @param width Width.
+     * @param height Height.
+     */
+    void add(int x, int y, int width, int height)
+    {
+        if (all || width <= 0 || height <= 0)
+        {
+            return;
+        }
+
+        int l = x, t = y, r = x + width, b = y + height;
+        long area = (long) width * height;
+
+        // Find the box that grows least.
+        int best = -1;
+        long bestGrowth = Long.MAX_VALUE, bestUnion = 0;
+
+        for (int k = 0; k < size; k++)
+        {
+            long union = (long) (Math.max(r, right[k]) - Math.min(l, left[k])) * (Math.max(b, bottom[k]) - Math.min(t, top[k]));
+            long growth = union - (long) (right[k] - left[k]) * (bottom[k] - top[k]);
+
+            if (growth < bestGrowth)
+            {
+                best = k;
+                bestGrowth = growth;
+                bestUnion = union;
+            }
+        }
+
+        // Start a new box if the union would be mostly empty.
+        if (size < MaxBoxes && (best < 0 || bestUnion > 2 * (bestUnion - bestGrowth + area)))
+        {
+            left[size] = l;
+            top[size] = t;
+            right[size] = r;
+            bottom[size] = b;
+            ++size;
+        }
+        else
+        {
+            left[best] = Math.min(l, left[best]);
+            top[best] = Math.min(t, top[best]);
+            right[best] = Math.max(r, right[best]);
+            bottom[best] = Math.max(b, bottom[best]);
+        }
+    }
+
+    /**
+     * Marks the whole buffer as dirty.
+     */
+    void addAll()
+    {
+        all = true;
+        size = 0;
+    }
+
+    /**
+     * Marks everything as clean.
+     */
+    void clear()
+    {
+        all = false;
+        size = 0;
+    }
+}
@@ -1,9 +1,11 @@
 package swa.ariadne.gui.maze;
 
 import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.image.ImageObserver;
+import java.awt.image.VolatileImage;
 
 /**
  * Comprises the callback methods that a client needs to offer
@@ -46,6 +48,18 @@ public interface IMazePainterClient
      * @return A new Image object.
      */
     Image createImage(int width, int height);
+
+    /**
+     * @param width The requested image width.
+     * @param height The requested image height.
+     * @return A new image that may be accelerated; null if this is not supported.
+     */
+    VolatileImage createVolatileImage(int width, int height);
+
+    /**
+     * @return The configuration of the display device; may be null.
+     */
+    GraphicsConfiguration getGraphicsConfiguration();
     
     /**
      * @return The ImageObserver corresponding to the result of createImage().
@@ -0,0 +1,228 @@
+package swa.ariadne.gui.maze;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.imageio.ImageIO;
+
+import swa.ariadne.logic.StepBuffer;
+import swa.ariadne.model.IMazeConsumer;
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeBatchGenerator;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.PathFinder;
+
+/**
+ * Renders {@link Maze Mazes} into images, without a {@link MazeCanvas} or any other window.
+ * <p>
+ * The maze is painted with its walls, its start and target square and, optionally, its solution path,
+ * surrounded by a margin of one grid width.
+ * The default colors are suitable for printing: black walls on a white background.
+ * <p>
+ * Every thread paints into its own image, which is reused for all mazes of the same size.
+ * Thus, a renderer may be shared by the worker threads of a {@link MazeBatchGenerator}.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class MazeImageRenderer
+{
+    //--------------------- Constants
+
+    /** File name extension and format name of the written images. */
+    public static final String ImageFormat = "png";
+
+    //--------------------- Member variables and Properties
+
+    /** Size of a maze square, between two walls. */
+    private final int squareWidth;
+
+    /** Width of a wall. */
+    private final int wallWidth;
+
+    /** Width of the painted path. */
+    private final int pathWidth;
+
+    /** Color of the background. */
+    private Color backgroundColor = Color.WHITE;
+
+    /** Color of the walls. */
+    private Color wallColor = Color.BLACK;
+
+    /** Color of the solution path and of the start and target square. */
+    private Color solutionColor = Color.RED;
+
+    /**
+     * @param background Color of the background.
+     * @param wall Color of the walls.
+     * @param solution Color of the solution path and of the start and target square.
+     */
+    public void setColors(Color background, Color wall, Color solution)
+    {
+        this.backgroundColor = background;
+        this.wallColor = wall;
+        this.solutionColor = solution;
+    }
+
+    /** The image of the current thread. */
+    private final ThreadLocal<RasterRenderer> rasters = new ThreadLocal<RasterRenderer>();
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param geometry The dimensions of the maze constituents; its offset is irrelevant.
+     */
+    public MazeImageRenderer(MazeGeometry geometry)
+    {
+        this.squareWidth = geometry.squareWidth;
+        this.wallWidth = geometry.wallWidth;
+        this.pathWidth = geometry.pathWidth;
+    }
+
+    //--------------------- Rendering
+
+    /**
+     * @param maze A maze.
+     * @return The size of the maze's image, including the margin.
+     */
+    public Dimension getImageSize(Maze maze)
+    {
+        int gridWidth = squareWidth + wallWidth;
+        int margin = gridWidth;
+
+        return new Dimension(maze.getXSize() * gridWidth + wallWidth + 2 * margin,
+                             maze.getYSize() * gridWidth + wallWidth + 2 * margin);
+    }
+
+    /**
+     * Renders a maze into the current thread's image.
+     * @param maze A completely built maze.
+     * @param withSolution When true, the solution path is painted, as well.
+     * @return The image; it will be overwritten by the next call in the same thread.
+     */
+    public BufferedImage render(Maze maze, boolean withSolution)
+    {
+        Dimension size = getImageSize(maze);
+        RasterRenderer raster = rasters.get();
+
+        if (raster == null || !raster.hasSize(size.width, size.height))
+        {
+            raster = new RasterRenderer(size.width, size.height);
+            rasters.set(raster);
+        }
+
+        // Every call uses its own geometry; the offset places the walls of the first squares at the margin.
+        MazeGeometry geometry = new MazeGeometry(squareWidth, wallWidth, pathWidth);
+        geometry.offset.x = geometry.gridWidth + wallWidth;
+        geometry.offset.y = geometry.gridWidth + wallWidth;
+
+        MazeGrid grid = maze.getGrid();
+
+        raster.fill(backgroundColor);
+        raster.paintWalls(grid, geometry, wallColor);
+
+        if (withSolution)
+        {
+            int[] path = PathFinder.getSolutionPath(maze);
+            PaintedPaths paths = new PaintedPaths(grid.getWidth(), grid.getSquareCount());
+
+            paths.addDot(path[0], StepBuffer.Forward);
+            for (int k = 1; k < path.length; k++)
+            {
+                paths.add(path[k - 1], path[k], StepBuffer.Forward);
+            }
+
+            raster.paintPaths(paths, grid, geometry, new Color[] { solutionColor, solutionColor, solutionColor });
+        }
+
+        paintSquare(raster, geometry, geometry.getSquarePosition(maze.getStartSquare()));
+        paintSquare(raster, geometry, geometry.getSquarePosition(maze.getTargetSquare()));
+
+        return raster.getImage();
+    }
+
+    /**
+     * Paints an end point.
+     * @param raster The image.
+     * @param geometry The dimensions of the maze constituents.
+     * @param p The square's top left position.
+     */
+    private void paintSquare(RasterRenderer raster, MazeGeometry geometry, Point p)
+    {
+        raster.fillRect(p.x, p.y, geometry.squareWidth, geometry.squareWidth, solutionColor);
+    }
+
+    //--------------------- Writing
+
+    /**
+     * Renders a maze and writes the image to a file.
+     * @param maze A completely built maze.
+     * @param withSolution When true, the solution path is painted, as well.
+     * @param file The file; an existing file is replaced.
+     * @throws IOException When the file cannot be written.
+     */
+    public void write(Maze maze, boolean withSolution, File file) throws IOException
+    {
+        if (!ImageIO.write(render(maze, withSolution), ImageFormat, file))
+        {
+            throw new IOException("no image writer for " + ImageFormat);
+        }
+    }
+
+    /**
+     * Generates one maze for every seed and writes its image into the given directory.
+     * The mazes are rendered and written by the generator's worker threads, as soon as they are built.
+     * The file names are the maze codes.
+     * @param generator Creates the mazes.
+     * @param seeds The maze seeds.
+     * @param directory An existing directory.
+     * @param withSolution When true, the solution paths are painted, as well.
+     * @throws IOException When a file cannot be written; the remaining mazes are skipped.
+     */
+    public void writeAll(MazeBatchGenerator generator, int[] seeds, final File directory, final boolean withSolution) throws IOException
+    {
+        final AtomicReference<IOException> failure = new AtomicReference<IOException>();
+
+        generator.generate(seeds, new IMazeConsumer()
+        {
+            @Override
+            public void accept(Maze maze)
+            {
+                if (failure.get() != null)
+                {
+                    return;
+                }
+
+                try
+                {
+                    write(maze, withSolution, getFile(directory, maze));
+                }
+                catch (IOException e)
+                {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        });
+
+        if (failure.get() != null)
+        {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * @param directory The output directory.
+     * @param maze A maze.
+     * @return The image file of the given maze, named by its code.
+     */
+    public static File getFile(File directory, Maze maze)
+    {
+        return new File(directory, maze.getCode() + "." + ImageFormat);
+    }
+}
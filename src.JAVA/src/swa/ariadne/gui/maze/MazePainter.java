@@ -3,9 +3,11 @@ package swa.ariadne.gui.maze;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.image.VolatileImage;
 import java.util.List;
 
 import swa.ariadne.logic.*;
@@ -16,6 +18,10 @@ import swa.util.ColorBuilder;
 /**
  * The MazePainter is responsible for the painting operations in a {@link MazeCanvas}.
  * It only needs the client's Graphics object but none of its Component abilities.
+ * <p>
+ * A MazePainter is not thread safe.
+ * It must only be used on the event dispatch thread, where AWT calls paint() and the step timer paints the solver's steps.
+ * The buffer may then be replaced or restored at any time without interfering with an ongoing painting operation.
  * 
  * @author Stephan.Wacker@web.de
  */
@@ -30,6 +36,15 @@ implements IMazeDrawer
     /** Reference Color for deriving forward and backward path colors. */
     private static final Color MaxColor = Color.getColor("Gold", Color.decode("#ffd700"));
 
+    /** Number of mazes kept ready for every layout. */
+    private static final int PooledMazes = 2;
+
+    /** Number of recently painted mazes that can be replayed. */
+    private static final int ReplayedMazes = 16;
+
+    /** Keeps mazes ready for all MazePainters. */
+    private static final MazePool mazePool = new MazePool(PooledMazes, ReplayedMazes);
+
     //--------------------- Member Variables
 
     // TODO: remove this variable
@@ -78,8 +93,16 @@ implements IMazeDrawer
     private Graphics myGraphics;
     /** An off-screen graphics buffer. */
     private Image myBuffer;
+    /** The off-screen buffer, if it is a VolatileImage; otherwise null. */
+    private VolatileImage volatileBuffer;
+    /** Everything painted on the paths; used for restoring a volatileBuffer whose contents have been lost. */
+    private PaintedPaths paintedPaths;
+    /** Paints the static maze for the off-screen buffer; kept for the next maze of the same size. */
+    private RasterRenderer rasterRenderer;
     /** True if the maze has never been displayed. */
     private boolean notYetDisplayed = true;
+    /** The parts of myBuffer that have not been copied to the targetGraphics. */
+    private final DirtyRegion dirtyRegion = new DirtyRegion();
 
     /** The dimensions of the maze constituents. */
     /* TODO: private */ MazeGeometry geometry;
@@ -219,7 +242,7 @@ implements IMazeDrawer
         // TODO: This assumes we are painting to an off-screen buffer.
         geometry.setOffset(targetRectangle.getSize(), dim);
 
-        // Create a maze object.
+        // Create a maze object; it serves as the template of the pooled maze.
         this.maze = new Maze(dim.width, dim.height);
 
         // Configure the maze layout.
@@ -228,8 +251,26 @@ implements IMazeDrawer
             canvasClient.makeReservedAreas(maze);
         }
 
-        // Build the maze.
-        maze.createMaze();
+        // Take a maze with the same layout, built in advance -- or build this one.
+        this.maze = mazePool.take(maze);
+    }
+
+    /**
+     * Replace the maze with a maze painted before.
+     * @param code The code of a recently painted maze.
+     * @return True if the maze could be replayed.
+     */
+    public boolean replayMaze(String code)
+    {
+        Maze replayed = mazePool.replay(code);
+
+        if (replayed == null || replayed.getXSize() != maze.getXSize() || replayed.getYSize() != maze.getYSize())
+        {
+            return false;
+        }
+
+        this.maze = replayed;
+        return true;
     }
     
     //--------------------- Runtime Methods.
@@ -247,6 +288,11 @@ implements IMazeDrawer
         // Destroy the current buffer; it will be re-created in the OnPaint() method.
         if (myGraphics != null)
         {
+            if (volatileBuffer != null)
+            {
+                volatileBuffer.flush();
+                volatileBuffer = null;
+            }
             myGraphics = null;
             myBuffer = null;
             notYetDisplayed = true;
@@ -309,7 +355,7 @@ implements IMazeDrawer
             // Maybe draw walls around the visited square.
             if (forward && this.WallVisibility == AriadneSettingsData.WallVisibilityEnum.WhenVisited)
             {
-                Graphics bg = Graphics.FromImage(backgroundImage);
+                Graphics bg = backgroundImage.getGraphics();
                 this.PaintWalls(bg, sq2);
             }
 
@@ -321,6 +367,8 @@ implements IMazeDrawer
         // Draw a line from sq1 to sq2.
         g.setColor(forward ? this.forwardColor : this.backwardColor);
         g.fillRect(p1.x, p1.y, (p2.x - p1.x + geometry.pathWidth), (p2.y - p1.y + geometry.pathWidth));
+        dirtyRegion.add(p1.x, p1.y, (p2.x - p1.x + geometry.pathWidth), (p2.y - p1.y + geometry.pathWidth));
+        paintedPaths.add(sq1.getIndex(), sq2.getIndex(), (forward ? StepBuffer.Forward : StepBuffer.Backward));
 
         // Maybe redraw the end point.
         if (sq1 == maze.getStartSquare() || sq2 == maze.getStartSquare() || sq1 == maze.getTargetSquare() || sq2 == maze.getTargetSquare())
@@ -356,6 +404,7 @@ implements IMazeDrawer
         else
         {
             this.paintPathDot(sq, forwardColor);
+            paintedPaths.addDot(sq.getIndex(), StepBuffer.Forward);
         }
     }
 
@@ -363,6 +412,92 @@ implements IMazeDrawer
     public void drawDeadSquare(MazeSquare sq)
     {
         paintPathDot(sq, deadEndColor);
+        paintedPaths.addDot(sq.getIndex(), StepBuffer.DeadSquare);
+    }
+
+    /**
+     * Paints the same as a sequence of {@link #drawStep(MazeSquare, MazeSquare, boolean)}
+     * and {@link #drawDeadSquare(MazeSquare)} calls; a {@link StepBuffer#Dot} is painted in the forward color.
+     * Consecutive rectangles of the same color are coalesced into a single fillRect(),
+     * as long as their union is a rectangle, too.
+     * The end points are repainted only once, at the end.
+     */
+    @Override
+    public void drawSteps(StepBuffer steps)
+    {
+        Graphics g = this.myGraphics;
+        int width = maze.getGrid().getWidth(), pw = geometry.pathWidth;
+        int start = maze.getStartIndex(), target = maze.getTargetIndex();
+        boolean touchesEndpoints = false;
+
+        // The pending rectangle: left, top, right, bottom (exclusive) and its color.
+        int l = 0, t = 0, r = 0, b = 0;
+        Color color = null;
+
+        for (int k = 0, n = steps.size(); k < n; k++)
+        {
+            int i1 = steps.getFrom(k), i2 = steps.getTo(k);
+            byte kind = steps.getKind(k);
+
+            int x1 = geometry.getPathX(i1 % width), y1 = geometry.getPathY(i1 / width);
+            int x2 = geometry.getPathX(i2 % width), y2 = geometry.getPathY(i2 / width);
+            int l2 = Math.min(x1, x2), t2 = Math.min(y1, y2);
+            int r2 = Math.max(x1, x2) + pw, b2 = Math.max(y1, y2) + pw;
+            Color c = getPathColor(kind);
+
+            if (kind == StepBuffer.Dot)
+            {
+                paintedPaths.addDot(i2, StepBuffer.Forward);
+            }
+            else if (kind == StepBuffer.DeadSquare)
+            {
+                paintedPaths.addDot(i2, kind);
+            }
+            else
+            {
+                paintedPaths.add(i1, i2, kind);
+            }
+
+            if (c == color
+                && ((t2 == t && b2 == b && l2 <= r && r2 >= l)     // same row, overlapping or adjoining
+                 || (l2 == l && r2 == r && t2 <= b && b2 >= t)     // same column, overlapping or adjoining
+                 || (l2 >= l && r2 <= r && t2 >= t && b2 <= b)))   // contained
+            {
+                l = Math.min(l, l2); t = Math.min(t, t2);
+                r = Math.max(r, r2); b = Math.max(b, b2);
+            }
+            else
+            {
+                if (color != null)
+                {
+                    g.setColor(color);
+                    g.fillRect(l, t, r - l, b - t);
+                    dirtyRegion.add(l, t, r - l, b - t);
+                }
+                l = l2; t = t2; r = r2; b = b2;
+                color = c;
+            }
+
+            if (i1 == start || i2 == start || i1 == target || i2 == target)
+            {
+                touchesEndpoints = true;
+            }
+        }
+
+        if (color != null)
+        {
+            g.setColor(color);
+            g.fillRect(l, t, r - l, b - t);
+            dirtyRegion.add(l, t, r - l, b - t);
+        }
+
+        steps.clear();
+
+        // Maybe redraw the end points.
+        if (touchesEndpoints)
+        {
+            this.paintEndpoints(g);
+        }
     }
 
     //--------------------- Painting Methods
@@ -414,6 +549,7 @@ implements IMazeDrawer
 
         if (client == null || client.isAlive())
         {
+            dirtyRegion.addAll();
             renderBufferedGraphics();
         }
     }
@@ -428,7 +564,13 @@ implements IMazeDrawer
         //Log.WriteLine("{ PaintMaze()");
         createCurrentGraphics();
         
-        paintMaze(myGraphics);
+        paintMaze(myGraphics, false);
+        dirtyRegion.addAll();
+
+        if (client != null)
+        {
+            client.afterMazePainted();
+        }
 
         /* TODO:
         // Let all shared painters use the new graphics object.
@@ -443,27 +585,36 @@ implements IMazeDrawer
 
     /**
      * Draws the static maze.
+     * When painting into the off-screen buffer, the background, walls and paths are painted by a {@link RasterRenderer}
+     * and copied into g at once.
      * @param g
+     * @param withPaths When true, the {@link #paintedPaths} are painted, as well.
      */
-    private void paintMaze(Graphics g)
+    private void paintMaze(Graphics g, boolean withPaths)
     {
         // If there is a background image, we need to paint the maze into it, as well.
         Graphics bg = null;
+
+        // The Graphics for painting the reserved areas and other irregular items.
+        RasterRenderer raster = null;
+        Graphics rg = g;
         
-        g.setColor(Color.BLACK);
         if (myGraphics == targetGraphics)
         {
+            g.setColor(Color.BLACK);
             g.fillRect(targetRectangle.x, targetRectangle.y, targetRectangle.width, targetRectangle.height);
         }
         else
         {
-            g.fillRect(0, 0, targetRectangle.width, targetRectangle.height);
+            raster = getRasterRenderer();
+            raster.fill(Color.BLACK);
+            rg = raster.createGraphics();
         }
 
         /* TODO
         if (backgroundImage != null)
         {
-            bg = Graphics.FromImage(backgroundImage);
+            bg = backgroundImage.getGraphics();
             this.backgroundImageSetupCompletion();
         }
         */
@@ -472,7 +623,7 @@ implements IMazeDrawer
         // as it may also paint into areas that are later covered by the maze.
         if (client != null)
         {
-            client.paintReservedAreas(g);
+            client.paintReservedAreas(rg);
             if (bg != null)
             {
                 client.paintReservedAreas(bg);
@@ -494,8 +645,15 @@ implements IMazeDrawer
             default:
             case Always:
 
-                paintBorder(g);
-                paintWalls(g);
+                if (raster != null)
+                {
+                    raster.paintWalls(maze.getGrid(), geometry, wallColor);
+                }
+                else
+                {
+                    paintBorder(g);
+                    paintWalls(g);
+                }
 
                 if (bg != null)
                 {
@@ -511,7 +669,7 @@ implements IMazeDrawer
             
             case WhenVisited:
 
-                paintWalls(g, maze.getStartSquare());
+                paintWalls(rg, maze.getStartSquare());
 
                 if (bg != null)
                 {
@@ -521,6 +679,24 @@ implements IMazeDrawer
                 break;
         }
 
+        if (withPaths)
+        {
+            if (raster != null)
+            {
+                raster.paintPaths(paintedPaths, maze.getGrid(), geometry, new Color[] { backwardColor, forwardColor, deadEndColor });
+            }
+            else
+            {
+                paintPaths(g);
+            }
+        }
+
+        if (raster != null)
+        {
+            rg.dispose();
+            g.drawImage(raster.getImage(), 0, 0, null);
+        }
+
         paintEndpoints(g);
         
         if (false)
@@ -531,13 +707,53 @@ implements IMazeDrawer
             g.drawLine(geometry.offset.x - d, geometry.offset.y, geometry.offset.x + d, geometry.offset.y);
             g.drawLine(geometry.offset.x, geometry.offset.y - d, geometry.offset.x, geometry.offset.y + d);
         }
-        
-        if (client != null)
+    }
+
+    /**
+     * Repaints everything that has been painted on the paths, as recorded in the {@link #paintedPaths}.
+     * @param g
+     */
+    private void paintPaths(Graphics g)
+    {
+        int width = maze.getGrid().getWidth(), height = maze.getGrid().getHeight();
+        int pw = geometry.pathWidth, gap = geometry.gridWidth - pw;
+
+        for (int y = 0, i = 0; y < height; y++)
         {
-            client.afterMazePainted();
+            int py = geometry.getPathY(y);
+            for (int x = 0; x < width; x++, i++)
+            {
+                int px = geometry.getPathX(x);
+                byte kind;
+
+                if ((kind = paintedPaths.getDot(i)) != PaintedPaths.None)
+                {
+                    g.setColor(getPathColor(kind));
+                    g.fillRect(px, py, pw, pw);
+                }
+                if ((kind = paintedPaths.getEastGap(i)) != PaintedPaths.None)
+                {
+                    g.setColor(getPathColor(kind));
+                    g.fillRect(px + pw, py, gap, pw);
+                }
+                if ((kind = paintedPaths.getSouthGap(i)) != PaintedPaths.None)
+                {
+                    g.setColor(getPathColor(kind));
+                    g.fillRect(px, py + pw, pw, gap);
+                }
+            }
         }
     }
 
+    /**
+     * @param kind One of the {@link StepBuffer} kinds.
+     * @return The color of a step, dot or dead square.
+     */
+    private Color getPathColor(byte kind)
+    {
+        return (kind == StepBuffer.Backward ? backwardColor : kind == StepBuffer.DeadSquare ? deadEndColor : forwardColor);
+    }
+
     /**
      * Paints a border around the maze.
      * @param g
@@ -682,6 +898,7 @@ implements IMazeDrawer
         
         g.setColor(color);
         g.fillRect(p.x, p.y, geometry.squareWidth, geometry.squareWidth);
+        dirtyRegion.add(p.x, p.y, geometry.squareWidth, geometry.squareWidth);
     }
     
 
@@ -706,6 +923,7 @@ implements IMazeDrawer
 
         g.setColor(color);
         g.fillRect(p.x, p.y, geometry.pathWidth, geometry.pathWidth);
+        dirtyRegion.add(p.x, p.y, geometry.pathWidth, geometry.pathWidth);
     }
 
     //--------------------- Methods for Buffered Painting
@@ -733,14 +951,97 @@ implements IMazeDrawer
         else
         {
             // buffered painting
-            myBuffer = client.createImage(targetRectangle.width, targetRectangle.height);
+            createBuffer();
             myGraphics = myBuffer.getGraphics();
             geometry.setOffset(targetRectangle.getSize(), maze.getSize());
         }
+
+        paintedPaths = new PaintedPaths(maze.getXSize(), maze.getGrid().getSquareCount());
+    }
+
+    /**
+     * Creates the off-screen buffer (myBuffer) in the size of the targetRectangle.
+     * Prefers an accelerated image (the volatileBuffer);
+     * then, a managed image compatible with the display device; finally, a plain image.
+     */
+    private void createBuffer()
+    {
+        int width = targetRectangle.width, height = targetRectangle.height;
+        GraphicsConfiguration gc = client.getGraphicsConfiguration();
+
+        volatileBuffer = client.createVolatileImage(width, height);
+        if (volatileBuffer != null)
+        {
+            volatileBuffer.validate(gc);
+            myBuffer = volatileBuffer;
+        }
+        else if (gc != null)
+        {
+            myBuffer = gc.createCompatibleImage(width, height);
+        }
+        else
+        {
+            myBuffer = client.createImage(width, height);
+        }
+    }
+
+    /**
+     * Makes sure that the volatileBuffer is usable and has its contents.
+     * When the contents have been lost, the buffer is repainted from the maze and the {@link #paintedPaths}.
+     */
+    private void validateBuffer()
+    {
+        if (volatileBuffer == null || volatileBuffer.validate(client.getGraphicsConfiguration()) == VolatileImage.IMAGE_OK)
+        {
+            return;
+        }
+
+        restoreBuffer();
+    }
+
+    /**
+     * Repaints the whole buffer: the static maze, the paths and the end points.
+     * If the display device has changed, the buffer is replaced.
+     * Painting is repeated while the contents of the volatileBuffer are lost again.
+     * The old myGraphics is disposed; see the note on thread confinement in the class comment.
+     */
+    private void restoreBuffer()
+    {
+        GraphicsConfiguration gc = client.getGraphicsConfiguration();
+
+        do
+        {
+            if (volatileBuffer != null && volatileBuffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE)
+            {
+                // The display device has changed; replace the buffer.
+                volatileBuffer.flush();
+                createBuffer();
+            }
+
+            myGraphics.dispose();
+            myGraphics = myBuffer.getGraphics();
+
+            paintMaze(myGraphics, true);
+        }
+        while (volatileBuffer != null && volatileBuffer.contentsLost());
+
+        dirtyRegion.addAll();
+    }
+
+    /**
+     * @return A RasterRenderer for the whole off-screen buffer.
+     */
+    private RasterRenderer getRasterRenderer()
+    {
+        if (rasterRenderer == null || !rasterRenderer.hasSize(targetRectangle.width, targetRectangle.height))
+        {
+            rasterRenderer = new RasterRenderer(targetRectangle.width, targetRectangle.height);
+        }
+        return rasterRenderer;
     }
 
     /**
-     * Copies the buffered image to the actual targetGraphics.
+     * Copies the parts of the buffered image that have changed to the actual targetGraphics.
      */
     public void renderBufferedGraphics()
     {
@@ -751,24 +1052,45 @@ implements IMazeDrawer
         
         if (myGraphics != targetGraphics)
         {
-            if (true)
+            validateBuffer();
+        }
+
+        if (myGraphics != targetGraphics && !dirtyRegion.isEmpty())
+        {
+            int x0 = targetRectangle.x, y0 = targetRectangle.y;
+
+            if (dirtyRegion.isAll())
             {
-                targetGraphics.drawImage(myBuffer, targetRectangle.x, targetRectangle.y, client.getImageObserver());
+                targetGraphics.drawImage(myBuffer, x0, y0, client.getImageObserver());
             }
             else
             {
-                targetGraphics.drawImage(myBuffer, 0, 0, client.getImageObserver());
+                for (int k = 0; k < dirtyRegion.size(); k++)
+                {
+                    int x1 = dirtyRegion.getX(k), y1 = dirtyRegion.getY(k);
+                    int x2 = x1 + dirtyRegion.getWidth(k), y2 = y1 + dirtyRegion.getHeight(k);
+                    targetGraphics.drawImage(myBuffer, x0 + x1, y0 + y1, x0 + x2, y0 + y2, x1, y1, x2, y2, client.getImageObserver());
+                }
+            }
+
+            dirtyRegion.clear();
+
+            // If the contents were lost while copying, they will be restored in the next frame.
+            if (volatileBuffer != null && volatileBuffer.contentsLost())
+            {
+                dirtyRegion.addAll();
             }
         }
     }
     
     /**
-     * Copies the buffered image to the given Graphics.
+     * Copies the whole buffered image to the given Graphics.
      * @param g A new targetGraphics object.
      */
     public void renderBufferedGraphics(Graphics g)
     {
         targetGraphics = g;
+        dirtyRegion.addAll();
         renderBufferedGraphics();
     }
 }
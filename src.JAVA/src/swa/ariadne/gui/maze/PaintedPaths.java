@@ -0,0 +1,121 @@
+package swa.ariadne.gui.maze;
+
+import java.util.Arrays;
+
+import swa.ariadne.logic.StepBuffer;
+
+/**
+ * Remembers what the {@link MazePainter} has painted on the paths of a maze,
+ * so that the buffer can be repainted after its contents have been lost.
+ * <p>
+ * Every step covers the path dots of two adjoining squares and the gap between them.
+ * Dots and gaps do not overlap; thus, their last painted kinds are sufficient to repeat the painting exactly.
+ * For every square, one byte each holds the kind of its dot and of the gaps to its east and south neighbors.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+final
+class PaintedPaths
+{
+    //--------------------- Constants
+
+    /** Stored value of a dot or gap that has not been painted. */
+    static final byte None = -1;
+
+    //--------------------- Member variables and Properties
+
+    /** Width of the maze. */
+    private final int width;
+
+    /** For every square: the {@link StepBuffer} kind of its dot, or {@link #None}. */
+    private final byte[] dots;
+
+    /** For every square: the kind of the gap to its east neighbor, or {@link #None}. */
+    private final byte[] eastGaps;
+
+    /** For every square: the kind of the gap to its south neighbor, or {@link #None}. */
+    private final byte[] southGaps;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * Nothing has been painted.
+     * @param width Width of the maze.
+     * @param squareCount Number of squares in the maze.
+     */
+    PaintedPaths(int width, int squareCount)
+    {
+        this.width = width;
+        this.dots = new byte[squareCount];
+        this.eastGaps = new byte[squareCount];
+        this.southGaps = new byte[squareCount];
+
+        Arrays.fill(dots, None);
+        Arrays.fill(eastGaps, None);
+        Arrays.fill(southGaps, None);
+    }
+
+    //--------------------- Queries
+
+    /**
+     * @param index A square index.
+     * @return The kind of the square's dot, or {@link #None}.
+     */
+    byte getDot(int index)
+    {
+        return dots[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @return The kind of the gap to the east neighbor, or {@link #None}.
+     */
+    byte getEastGap(int index)
+    {
+        return eastGaps[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @return The kind of the gap to the south neighbor, or {@link #None}.
+     */
+    byte getSouthGap(int index)
+    {
+        return southGaps[index];
+    }
+
+    //--------------------- Modifiers
+
+    /**
+     * Records a step between two adjoining squares.
+     * @param i1 The index of the square where the step begins.
+     * @param i2 The index of the square where the step ends.
+     * @param kind {@link StepBuffer#Forward} or {@link StepBuffer#Backward}.
+     */
+    void add(int i1, int i2, byte kind)
+    {
+        dots[i1] = kind;
+        dots[i2] = kind;
+
+        int i = Math.min(i1, i2), d = Math.abs(i1 - i2);
+        if (d == 1)
+        {
+            eastGaps[i] = kind;
+        }
+        else if (d == width)
+        {
+            southGaps[i] = kind;
+        }
+    }
+
+    /**
+     * Records a dot painted in a single square.
+     * @param index A square index.
+     * @param kind The kind whose color has been used: {@link StepBuffer#Forward} or {@link StepBuffer#DeadSquare}.
+     */
+    void addDot(int index, byte kind)
+    {
+        dots[index] = kind;
+    }
+}
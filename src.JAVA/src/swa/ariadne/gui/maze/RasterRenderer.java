@@ -0,0 +1,349 @@
+package swa.ariadne.gui.maze;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import swa.ariadne.logic.StepBuffer;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.WallPosition;
+import swa.ariadne.model.WallState;
+
+/**
+ * Paints walls and paths directly into the pixel array of an image, without going through the Graphics pipeline.
+ * <p>
+ * The {@link MazePainter} uses it for painting a whole maze at once: it would otherwise issue one fillRect() per wall.
+ * The result is the same as that of the corresponding fillRect() calls.
+ * Rectangles are filled row by row; adjoining walls in a row are filled as a single span.
+ * <p>
+ * In large images, the walls are painted in horizontal bands by the common fork-join pool.
+ * Every band writes only its own pixel rows; walls crossing a band boundary are clipped and painted by both bands.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+final
+class RasterRenderer
+{
+    //--------------------- Constants
+
+    /** Bands of fewer pixel rows are not split any further: {@value}. */
+    private static final int MinBandHeight = 64;
+
+    //--------------------- Member variables and Properties
+
+    /** The image we are painting in. */
+    private final BufferedImage image;
+
+    /** @return The image we are painting in. */
+    BufferedImage getImage()
+    {
+        return image;
+    }
+
+    /** The pixels of the image, row by row. */
+    private final int[] pixels;
+
+    /** Width of the image. */
+    private final int width;
+
+    /** Height of the image. */
+    private final int height;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param width Width of the image.
+     * @param height Height of the image.
+     */
+    RasterRenderer(int width, int height)
+    {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param width Width of the image.
+     * @param height Height of the image.
+     * @return True if the image has the given dimensions.
+     */
+    boolean hasSize(int width, int height)
+    {
+        return this.width == width && this.height == height;
+    }
+
+    //--------------------- Painting Methods
+
+    /**
+     * @return A Graphics for painting into the image with regular methods; it must be disposed by the caller.
+     */
+    Graphics createGraphics()
+    {
+        return image.createGraphics();
+    }
+
+    /**
+     * Fills the whole image.
+     * @param color The color.
+     */
+    void fill(Color color)
+    {
+        Arrays.fill(pixels, color.getRGB() & 0xFFFFFF);
+    }
+
+    /**
+     * Fills a rectangle, clipped to the image.
+     * @param x Left edge.
+     * @param y Top edge.
+     * @param w Width.
+     * @param h Height.
+     * @param color The color.
+     */
+    void fillRect(int x, int y, int w, int h, Color color)
+    {
+        fillRect(x, y, w, h, color.getRGB() & 0xFFFFFF);
+    }
+
+    /**
+     * Paints all closed walls: the west and north walls of every square and the east and south border.
+     * Like {@link MazePainter}, walls on the west and north border are the west and north walls of the border squares.
+     * @param grid The maze.
+     * @param geometry The dimensions of the maze constituents.
+     * @param color The wall color.
+     */
+    void paintWalls(MazeGrid grid, MazeGeometry geometry, Color color)
+    {
+        int rgb = color.getRGB() & 0xFFFFFF;
+
+        if (height < 2 * MinBandHeight)
+        {
+            paintWalls(grid, geometry, rgb, 0, height);
+        }
+        else
+        {
+            ForkJoinPool.commonPool().invoke(new WallBand(grid, geometry, rgb, 0, height));
+        }
+    }
+
+    /**
+     * Paints all closed walls within a band of pixel rows.
+     * @param grid The maze.
+     * @param geometry The dimensions of the maze constituents.
+     * @param rgb The wall color.
+     * @param top First pixel row of the band.
+     * @param bottom Pixel row below the band.
+     */
+    private void paintWalls(MazeGrid grid, MazeGeometry geometry, int rgb, int top, int bottom)
+    {
+        int xSize = grid.getWidth(), ySize = grid.getHeight();
+        int ww = geometry.wallWidth, wl = geometry.gridWidth + ww;
+
+        for (int y = 0; y <= ySize; y++)
+        {
+            int cy = geometry.getWallY(y);
+
+            // Skip rows whose walls lie outside the band.
+            if (cy + wl <= top || cy >= bottom)
+            {
+                continue;
+            }
+
+            // The north walls of this row (or the south walls of the last row) are painted in spans.
+            int spanStart = -1, spanEnd = -1;
+
+            for (int x = 0; x <= xSize; x++)
+            {
+                int cx = geometry.getWallX(x);
+                boolean horizontal = false;
+
+                if (y < ySize && x < xSize)
+                {
+                    int index = grid.getIndex(x, y);
+
+                    if (grid.getWall(index, WallPosition.WP_W) == WallState.WS_CLOSED)
+                    {
+                        fillRect(cx, cy, ww, wl, rgb, top, bottom);
+                    }
+                    horizontal = (grid.getWall(index, WallPosition.WP_N) == WallState.WS_CLOSED);
+                }
+                else if (y < ySize)
+                {
+                    // East border.
+                    if (grid.getWall(grid.getIndex(xSize - 1, y), WallPosition.WP_E) == WallState.WS_CLOSED)
+                    {
+                        fillRect(cx, cy, ww, wl, rgb, top, bottom);
+                    }
+                }
+                else if (x < xSize)
+                {
+                    // South border.
+                    horizontal = (grid.getWall(grid.getIndex(x, ySize - 1), WallPosition.WP_S) == WallState.WS_CLOSED);
+                }
+
+                if (horizontal)
+                {
+                    if (spanStart < 0 || cx > spanEnd)
+                    {
+                        if (spanStart >= 0)
+                        {
+                            fillRect(spanStart, cy, spanEnd - spanStart, ww, rgb, top, bottom);
+                        }
+                        spanStart = cx;
+                    }
+                    spanEnd = cx + wl;
+                }
+            }
+
+            if (spanStart >= 0)
+            {
+                fillRect(spanStart, cy, spanEnd - spanStart, ww, rgb, top, bottom);
+            }
+        }
+    }
+
+    /**
+     * Paints the dots and gaps that have been painted on the paths.
+     * @param paths The painted paths.
+     * @param grid The maze.
+     * @param geometry The dimensions of the maze constituents.
+     * @param colors The colors of the {@link StepBuffer} kinds: backward, forward and dead square.
+     */
+    void paintPaths(PaintedPaths paths, MazeGrid grid, MazeGeometry geometry, Color[] colors)
+    {
+        int[] rgb = new int[colors.length];
+        for (int k = 0; k < colors.length; k++)
+        {
+            rgb[k] = colors[k].getRGB() & 0xFFFFFF;
+        }
+
+        int pw = geometry.pathWidth, gap = geometry.gridWidth - pw;
+
+        for (int y = 0, i = 0; y < grid.getHeight(); y++)
+        {
+            int py = geometry.getPathY(y);
+            for (int x = 0; x < grid.getWidth(); x++, i++)
+            {
+                int px = geometry.getPathX(x);
+                byte kind;
+
+                if ((kind = paths.getDot(i)) != PaintedPaths.None)
+                {
+                    fillRect(px, py, pw, pw, rgb[kind]);
+                }
+                if ((kind = paths.getEastGap(i)) != PaintedPaths.None)
+                {
+                    fillRect(px + pw, py, gap, pw, rgb[kind]);
+                }
+                if ((kind = paths.getSouthGap(i)) != PaintedPaths.None)
+                {
+                    fillRect(px, py + pw, pw, gap, rgb[kind]);
+                }
+            }
+        }
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * Fills a rectangle, clipped to the image.
+     * @param x Left edge.
+     * @param y Top edge.
+     * @param w Width.
+     * @param h Height.
+     * @param rgb The color.
+     */
+    private void fillRect(int x, int y, int w, int h, int rgb)
+    {
+        fillRect(x, y, w, h, rgb, 0, height);
+    }
+
+    /**
+     * Fills a rectangle, clipped to the image and to a band of pixel rows.
+     * @param x Left edge.
+     * @param y Top edge.
+     * @param w Width.
+     * @param h Height.
+     * @param rgb The color.
+     * @param top First pixel row of the band.
+     * @param bottom Pixel row below the band.
+     */
+    private void fillRect(int x, int y, int w, int h, int rgb, int top, int bottom)
+    {
+        int x1 = Math.max(0, x), x2 = Math.min(width, x + w);
+        int y1 = Math.max(top, y), y2 = Math.min(bottom, y + h);
+
+        if (x1 >= x2)
+        {
+            return;
+        }
+
+        for (int row = y1 * width; y1 < y2; y1++, row += width)
+        {
+            Arrays.fill(pixels, row + x1, row + x2, rgb);
+        }
+    }
+
+    //--------------------- Types
+
+    /**
+     * Paints the walls within a band of pixel rows, splitting it among several tasks.
+     */
+    private final class WallBand
+    extends RecursiveAction
+    {
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The maze. */
+        private final MazeGrid grid;
+
+        /** The dimensions of the maze constituents. */
+        private final MazeGeometry geometry;
+
+        /** The wall color. */
+        private final int rgb;
+
+        /** First pixel row of the band. */
+        private final int top;
+
+        /** Pixel row below the band. */
+        private final int bottom;
+
+        /**
+         * Constructor.
+         * @param grid The maze.
+         * @param geometry The dimensions of the maze constituents.
+         * @param rgb The wall color.
+         * @param top First pixel row of the band.
+         * @param bottom Pixel row below the band.
+         */
+        WallBand(MazeGrid grid, MazeGeometry geometry, int rgb, int top, int bottom)
+        {
+            this.grid = grid;
+            this.geometry = geometry;
+            this.rgb = rgb;
+            this.top = top;
+            this.bottom = bottom;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (bottom - top < 2 * MinBandHeight)
+            {
+                paintWalls(grid, geometry, rgb, top, bottom);
+            }
+            else
+            {
+                int middle = (top + bottom) / 2;
+                invokeAll(new WallBand(grid, geometry, rgb, top, middle), new WallBand(grid, geometry, rgb, middle, bottom));
+            }
+        }
+    }
+}
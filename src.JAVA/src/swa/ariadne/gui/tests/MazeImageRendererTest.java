@@ -0,0 +1,125 @@
+package swa.ariadne.gui.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+import swa.ariadne.gui.maze.MazeGeometry;
+import swa.ariadne.gui.maze.MazeImageRenderer;
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeBatchGenerator;
+import swa.ariadne.model.PathFinder;
+
+/**
+ * Test class for swa.ariadne.gui.maze.MazeImageRenderer.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class MazeImageRendererTest
+{
+    //--------------------- Unit tests for MazeImageRenderer
+
+    /**
+     * Test method for {@link MazeImageRenderer#render(Maze, boolean)}.
+     */
+    @Test
+    public final void MI_testRender_01()
+    {
+        MazeGeometry geometry = new MazeGeometry(6, 2, 4);
+        MazeImageRenderer target = new MazeImageRenderer(geometry);
+        int sw = geometry.squareWidth, pw = geometry.pathWidth;
+
+        Maze maze = new Maze(30, 20, 1, 17);
+        maze.createMaze();
+
+        BufferedImage image = target.render(maze, false);
+        assertEquals("wrong width", 30 * 8 + 2 + 2 * 8, image.getWidth());
+        assertEquals("wrong height", 20 * 8 + 2 + 2 * 8, image.getHeight());
+        assertEquals("wrong margin", Color.WHITE.getRGB(), image.getRGB(0, 0));
+        assertEquals("missing border", Color.BLACK.getRGB(), image.getRGB(8, 8));
+        assertEquals("wrong end points", 2 * sw * sw, count(image, Color.RED));
+
+        // Every square on the solution path has a dot, every step has a gap.
+        // The end points cover their dots and the ends of the first and last gap.
+        int n = PathFinder.getSolutionPath(maze).length;
+        image = target.render(maze, true);
+        int expected = n * pw * pw + (n - 1) * pw * (geometry.gridWidth - pw) + 2 * (sw * sw - pw * pw) - 2 * pw * (sw - pw) / 2;
+        assertEquals("wrong solution path", expected, count(image, Color.RED));
+    }
+
+    /**
+     * Test method for {@link MazeImageRenderer#writeAll(MazeBatchGenerator, int[], File, boolean)}.
+     * @throws IOException When the temporary files cannot be used.
+     */
+    @Test
+    public final void MI_testWriteAll_01() throws IOException
+    {
+        File directory = File.createTempFile("mazes", "");
+        assertTrue("cannot create directory", directory.delete() && directory.mkdir());
+
+        try
+        {
+            MazeBatchGenerator generator = new MazeBatchGenerator(25, 15, 1);
+            MazeImageRenderer target = new MazeImageRenderer(new MazeGeometry(10, true));
+            int[] seeds = MazeBatchGenerator.consecutiveSeeds(100, 6);
+
+            target.writeAll(generator, seeds, directory, true);
+
+            for (int seed : seeds)
+            {
+                Maze maze = generator.create(seed);
+                BufferedImage image = ImageIO.read(MazeImageRenderer.getFile(directory, maze));
+                BufferedImage expected = target.render(maze, true);
+
+                assertEquals("wrong width", expected.getWidth(), image.getWidth());
+                assertEquals("wrong height", expected.getHeight(), image.getHeight());
+                for (int y = 0; y < image.getHeight(); y++)
+                {
+                    for (int x = 0; x < image.getWidth(); x++)
+                    {
+                        assertEquals("wrong pixel", expected.getRGB(x, y), image.getRGB(x, y));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            for (File file : directory.listFiles())
+            {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * @param image An image.
+     * @param color A color.
+     * @return Number of pixels of the given color.
+     */
+    private static int count(BufferedImage image, Color color)
+    {
+        int result = 0;
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                if (image.getRGB(x, y) == color.getRGB())
+                {
+                    result += 1;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,10 +1,7 @@
 package swa.ariadne.logic;
 
-import java.util.List;
-import java.util.Stack;
-
 import swa.ariadne.model.Maze;
-import swa.ariadne.model.MazeSquare;
+import swa.ariadne.model.MazeGrid;
 import swa.ariadne.model.WallPosition;
 
 /**
@@ -19,9 +16,13 @@ extends SolverBase
     //--------------------- Member variables
 
     /**
-     * All squares passed in forward direction are collected on a stack.
+     * The indexes of all squares passed in forward direction are collected on a stack.
+     * Every square is pushed at most once, so the stack never overflows.
      */
-    private Stack<MazeSquare> stack = new Stack<MazeSquare>();
+    private final int[] stack;
+
+    /** Number of squares on the {@link #stack}. */
+    private int stackSize;
 
     //---------------------
 
@@ -35,6 +36,8 @@ extends SolverBase
     public BacktrackerBase(Maze maze, IMazeDrawer mazeDrawer)
     {
         super(maze, mazeDrawer);
+
+        this.stack = new int[maze.getGrid().getSquareCount()];
     }
 
     //---------------------
@@ -49,14 +52,13 @@ extends SolverBase
     {
         super.reset();
 
-        stack.clear();
-
         // Move to the start square.
-        MazeSquare sq = maze.getStartSquare();
+        int i = maze.getStartIndex();
 
         // Push the start square onto the stack.
-        stack.push(sq);
-        sq.isVisited = true;
+        stack[0] = i;
+        stackSize = 1;
+        visited.setVisited(i, true);
     }
 
     //---------------------
@@ -69,38 +71,52 @@ extends SolverBase
     @Override
     protected void stepI(StepResult out)
     {
-        if (maze.isSolved())
+        if (isSolved())
         {
             throw new Error("Maze is already solved.");
         }
 
+        MazeGrid grid = maze.getGrid();
+
         // Get the current square.
-        out.sq1 = stack.peek();
+        int i1 = stack[stackSize - 1];
+        out.i1 = i1;
 
         // Possible choices of open walls (not visited).
-        List<WallPosition> openWalls = getOpenWalls(out.sq1, true);
+        int openWalls = getOpenWalls(i1, true);
 
-        if (openWalls.size() > 0)
+        if (openWalls != 0)
         {
             // Select one of the neighbor squares.
-            WallPosition wp = selectDirection(out.sq1, openWalls);
+            WallPosition wp = selectDirection(i1, openWalls);
+            int i2 = grid.getOpenNeighborIndex(i1, wp.ordinal());
 
-            out.sq2 = out.sq1.getNeighbor(wp);
+            out.i2 = i2;
             out.forward = true;
 
             // Push the next square onto the stack.
-            stack.push(out.sq2);
-            out.sq2.isVisited = true;
+            stack[stackSize++] = i2;
+            visited.setVisited(i2, true);
         }
         else
         {
             // Pop the current square from the stack.
-            stack.pop();
+            --stackSize;
 
-            out.sq2 = stack.peek();
+            out.i2 = stack[stackSize - 1];
             out.forward = false;
         }
     }
 
+    //--------------------- Abstract methods
+
+    /**
+     * Select one of the open walls leading away from the given square.
+     * @param index The square at the end point of the current path.
+     * @param openWalls The valid continuation directions, a non-empty bit mask as returned by {@link #getOpenWalls(int, boolean)}.
+     * @return One of the given directions, depending on the solver strategy.
+     */
+    protected abstract WallPosition selectDirection(int index, int openWalls);
+
     //---------------------
 }
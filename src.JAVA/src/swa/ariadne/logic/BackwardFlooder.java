@@ -0,0 +1,25 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers the direction leading away from the end point.
+ */
+public
+class BackwardFlooder extends ForwardFlooder
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public BackwardFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+        // Invert the parent strategy: Maximize distance from the reference square.
+        this.distanceSign = -1;
+    }
+}
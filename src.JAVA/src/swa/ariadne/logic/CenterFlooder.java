@@ -0,0 +1,24 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers visiting the square closest to the center of the maze.
+ */
+public
+class CenterFlooder extends DistanceGuidedFlooderBase
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public CenterFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+        this.referenceSquare = maze.getCenterSquare();
+    }
+}
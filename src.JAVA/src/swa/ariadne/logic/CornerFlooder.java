@@ -0,0 +1,25 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers visiting the square farthest away from the center of the maze.
+ */
+public
+class CornerFlooder extends CenterFlooder
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public CornerFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+        // Invert the parent strategy: Maximize distance from the reference square.
+        this.distanceSign = -1;
+    }
+}
@@ -0,0 +1,151 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.WallPosition;
+import swa.ariadne.model.WallState;
+
+/**
+ * A MazeSolver that walks without memory, always keeping one hand at a wall.
+ * <p>
+ * The position and direction are kept as a square index and a {@link WallPosition} ordinal;
+ * a step does not allocate any objects.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+abstract
+class DeterministicWalker
+extends SolverBase
+{
+    //--------------------- Member variables
+
+    /** Index of the current square. */
+    private int currentIndex;
+
+    /** The current direction: a {@link WallPosition} ordinal. */
+    private int currentDirection;
+
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public DeterministicWalker(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- Setup methods
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.IMazeSolver#Reset()
+     */
+    @Override
+    public void reset()
+    {
+        super.reset();
+
+        MazeGrid grid = maze.getGrid();
+
+        // Move to the start square.
+        currentIndex = maze.getStartIndex();
+        visited.setVisited(currentIndex, true);
+
+        // Start in an arbitrary direction (with a wall in the back).
+        for (currentDirection = 0; currentDirection < WallPosition.NUM - 1; currentDirection++)
+        {
+            if (grid.getWall(currentIndex, wallPositions[currentDirection]) == WallState.WS_CLOSED)
+            {
+                currentDirection = WallPosition.oppositeWall(wallPositions[currentDirection]).ordinal();
+                break;
+            }
+        }
+    }
+
+    //--------------------- Runtime methods
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.SolverBase#StepI()
+     */
+    @Override
+    protected void stepI(StepResult out)
+    {
+        if (isSolved())
+        {
+            throw new Error("Maze is already solved.");
+        }
+
+        MazeGrid grid = maze.getGrid();
+
+        // Get the current position.
+        out.i1 = currentIndex;
+
+        // Set a new (valid) current direction.
+        turn();
+
+        int next = grid.getNeighborIndex(currentIndex, wallPositions[currentDirection]);
+        out.i2 = next;
+        out.forward = !visited.isVisited(next);
+
+        // Remember the new position.
+        currentIndex = next;
+        visited.setVisited(next, true);
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * Set a new (valid) current direction.
+     */
+    protected abstract void turn();
+
+    /**
+     * Turn counterclockwise.
+     */
+    protected void turnLeft()
+    {
+        currentDirection = (currentDirection + 1) % WallPosition.NUM;
+    }
+
+    /**
+     * Turn clockwise.
+     */
+    protected void turnRight()
+    {
+        currentDirection = (currentDirection + WallPosition.NUM - 1) % WallPosition.NUM;
+    }
+
+    /**
+     * @return True if we cannot (or should not) proceed in the current direction.
+     */
+    protected boolean currentDirectionIsInvalid()
+    {
+        MazeGrid grid = maze.getGrid();
+
+        // Check for open/closed walls.
+        if ((grid.getOpenWalls(currentIndex) & (1 << currentDirection)) == 0)
+        {
+            return true;
+        }
+
+        // Check for dead ends.
+        if (deadEndChecker != null)
+        {
+            int next = grid.getNeighborIndex(currentIndex, wallPositions[currentDirection]);
+            if (visited.isVisited(next))
+            {
+                // Backward moves must be respected.
+                return false;
+            }
+            if (deadEndChecker.isDead(next))
+            {
+                return true;
+            }
+        }
+
+        // No problem.
+        return false;
+    }
+}
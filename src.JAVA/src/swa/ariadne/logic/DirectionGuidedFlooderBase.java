@@ -0,0 +1,58 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * A MazeSolver with many concurrent paths.
+ * Prefers the path whose next step brings the largest relative gain in distance to the reference point.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+abstract
+class DirectionGuidedFlooderBase
+extends DistanceGuidedFlooderBase
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze.
+     */
+    public DirectionGuidedFlooderBase(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- PriorityFlooderBase Implementation
+
+    /**
+     * The value depends on the best unvisited neighbor.
+     * As neighbors are visited, the choice becomes smaller and the value increases,
+     * until it drops to {@link Double#NEGATIVE_INFINITY} when no neighbor is left.
+     * Both changes are caused by closing a neighbor, as required by {@link PriorityFlooderBase#pathValue(int)}.
+     * @see PriorityFlooderBase#pathValue(int)
+     */
+    @Override
+    protected double pathValue(int index)
+    {
+        int openWalls = getOpenWalls(index, true);
+
+        if (openWalls == 0)
+        {
+            // Immediately report any dead branch.  Otherwise they would never be detected.
+            // This decrease is pushed into the heap by PriorityFlooderBase.squareClosed().
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        WallPosition wp = selectDirection(index, openWalls);
+        int index2 = maze.getGrid().getOpenNeighborIndex(index, wp.ordinal());
+
+        double d1 = distance(index);
+        double d2 = distance(index2);
+        double distanceGain = distanceSign * ((d2 - d1) / d1);
+
+        return distanceGain;
+    }
+}
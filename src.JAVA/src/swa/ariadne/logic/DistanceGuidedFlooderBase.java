@@ -0,0 +1,84 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.MazeSquare;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * A MazeSolver with many concurrent paths.
+ * Is guided by the distance to a reference point.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+abstract
+class DistanceGuidedFlooderBase
+extends PriorityFlooderBase
+{
+    //--------------------- Member Variables
+
+    /** The (euclidian) distance to this square should be minimized (or maximized). */
+    protected MazeSquare referenceSquare;
+
+    /** +1 (minimize distance) or -1 (maximize distance). */
+    protected int distanceSign = +1;
+
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze.
+     */
+    public DistanceGuidedFlooderBase(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- PriorityFlooderBase Implementation
+
+    /**
+     * The distance of a square does not change while solving.
+     * @see PriorityFlooderBase#pathValue(int)
+     */
+    @Override
+    protected double pathValue(int index)
+    {
+        return distanceSign * distance(index);
+    }
+
+    @Override
+    protected WallPosition selectDirection(int index, int openWalls)
+    {
+        MazeGrid grid = maze.getGrid();
+        int bestSide = Integer.numberOfTrailingZeros(openWalls);
+        double bestDistance = Double.MAX_VALUE;
+
+        for (int bits = openWalls; bits != 0; bits &= bits - 1)
+        {
+            int side = Integer.numberOfTrailingZeros(bits);
+            double distance = distanceSign * distance(grid.getOpenNeighborIndex(index, side));
+            if (distance < bestDistance)
+            {
+                bestSide = side;
+                bestDistance = distance;
+            }
+        }
+
+        return wallPositions[bestSide];
+    }
+
+    //--------------------- Auxiliary Methods
+
+    /**
+     * @param index A square index.
+     * @return The (euclidian) distance of the given square from the reference square.
+     */
+    protected double distance(int index)
+    {
+        MazeGrid grid = maze.getGrid();
+        double dx = grid.getXPos(index) - referenceSquare.getXPos();
+        double dy = grid.getYPos(index) - referenceSquare.getYPos();
+        return Math.sqrt((dx * dx) + (dy * dy));
+    }
+}
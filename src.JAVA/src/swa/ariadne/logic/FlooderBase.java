@@ -1,11 +1,7 @@
 package swa.ariadne.logic;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-
 import swa.ariadne.model.Maze;
-import swa.ariadne.model.MazeSquare;
+import swa.ariadne.model.MazeGrid;
 import swa.ariadne.model.WallPosition;
 
 
@@ -19,27 +15,32 @@ extends SolverBase
     //--------------------- Member Variables
 
     /**
-     * Additional data for every MazeSquare required by the Flooder algorithm.
+     * For every square: the number of open paths that lead away from it.
+     * A path is considered "open" if its end point is in the list of active squares.
      */
-    private class MazeSquareExtension
-    {
-        /** Number of the open paths that lead away from this square. */
-        public int openPathCount;
+    private final int[] openPathCount;
 
-        /** Predecessor of this square on its path. */
-        public MazeSquare previousSquare;
-    }
+    /** For every square: the index of its predecessor on its path. */
+    private final int[] previousSquare;
 
     /**
-     * For every MazeSquare: a counter of the open paths that lead away from it.
-     * A path is considered "open" if its end point is in the list of active squares.
+     * The indexes of all squares passed in forward direction that may still have unvisited neighbors.
+     * This is a ring buffer: the first path is at {@link #pathHead}.
+     * Every square is added at most once, so the buffer never overflows.
      */
-    private MazeSquareExtension[][] mazeExtension;
+    private final int[] paths;
 
-    /**
-     *  All squares passed in forward direction are collected in a list.
-     */
-    protected List<MazeSquare> list = new ArrayList<MazeSquare>();
+    /** Position of the first path in the {@link #paths} buffer. */
+    private int pathHead;
+
+    /** Number of paths in the {@link #paths} buffer. */
+    private int pathCount;
+
+    /** For every square in the list of open paths: its position in the {@link #paths} buffer. */
+    private final int[] pathPos;
+
+    /** Used by {@link #markDeadBranch(int)}. */
+    private final int[] deadBranch;
 
     //--------------------- Constructor
 
@@ -52,7 +53,12 @@ extends SolverBase
     {
         super(maze, mazeDrawer);
 
-        this.mazeExtension = new MazeSquareExtension[maze.getXSize()][maze.getYSize()];
+        int n = maze.getGrid().getSquareCount();
+        this.openPathCount = new int[n];
+        this.previousSquare = new int[n];
+        this.paths = new int[n];
+        this.pathPos = new int[n];
+        this.deadBranch = new int[n];
     }
 
     //--------------------- Setup Methods
@@ -65,72 +71,61 @@ extends SolverBase
     {
         super.reset();
 
-        list.clear();
+        // Subclasses are notified about every removed path.
+        while (pathCount > 0)
+        {
+            removePath(pathCount - 1);
+        }
+        pathHead = 0;
 
         // Move to the start square.
-        MazeSquare sq = maze.getStartSquare();
-
-        // Add the start square to the list.
-        list.add(sq);
-        sq.isVisited = true;
+        int i = maze.getStartIndex();
 
         // As we may not retract beyond the start square, it needs to have a positive count.
-        mazeExtension[sq.getXPos()][sq.getYPos()].openPathCount = 1;
+        openPathCount[i] = 1;
+        previousSquare[i] = -1;
+
+        // Add the start square to the list.
+        visited.setVisited(i, true);
+        addPath(i);
     }
 
     //--------------------- SolverBase Implementation
 
-    /* (non-Javadoc)
-     * @see SolverBase#Step(IMazeSolver.StepResult)
-     */
-    @Override
-    public void step(StepResult out)
-    {
-        super.step(out);
-
-        if (out.forward) // Always true; Flooders only travel forwards.
-        {
-            mazeExtension[out.sq1.getXPos()][out.sq1.getYPos()].openPathCount += 1;
-            mazeExtension[out.sq2.getXPos()][out.sq2.getYPos()].previousSquare = out.sq1;
-
-            // This might also be done in the Reset() method.  But it is not too late here.
-            mazeExtension[out.sq2.getXPos()][out.sq2.getYPos()].openPathCount = 0;
-        }
-    }
-
     /* (non-Javadoc)
      * @see SolverBase#StepI(IMazeSolver.StepResult)
      */
     @Override
     protected void stepI(StepResult out)
     {
-        if (maze.isSolved())
+        if (isSolved())
         {
             throw new Error("Maze is already solved.");
         }
 
-        List<WallPosition> openWalls;
+        MazeGrid grid = maze.getGrid();
+        int i1, openWalls;
 
         while (true)
         {
             // Get a current square but leave it in the queue.
             int p = selectPathIdx();
-            out.sq1 = list.get(p);
+            i1 = getPathSquare(p);
 
             // Possible choices of open walls (not visited).
-            openWalls = getOpenWalls(out.sq1, true);
+            openWalls = getOpenWalls(i1, true);
 
-            if (openWalls.size() == 0)
+            if (openWalls == 0)
             {
-                list.remove(p);
-                // TODO: MarkDeadBranch(sq1);
+                removePath(p);
+                markDeadBranch(i1);
             }
             else
             {
                 // If this was the last open wall of sq1, it can be removed from the list.
-                if (openWalls.size() == 1)
+                if ((openWalls & (openWalls - 1)) == 0)
                 {
-                    list.remove(p);
+                    removePath(p);
                 }
 
                 // sq1 is the square from which we want to continue.
@@ -139,43 +134,170 @@ extends SolverBase
         }
 
         // Select one (any) of the neighbor squares.
-        WallPosition wp = selectDirection(out.sq1, openWalls);
+        WallPosition wp = selectDirection(i1, openWalls);
+        int i2 = grid.getOpenNeighborIndex(i1, wp.ordinal());
 
-        out.sq2 = out.sq1.getNeighbor(wp);
+        out.i1 = i1;
+        out.i2 = i2;
         out.forward = true;
 
+        openPathCount[i1] += 1;
+        openPathCount[i2] = 0;
+        previousSquare[i2] = i1;
+
         // Add the next square to the list.
-        list.add(out.sq2);
-        out.sq2.isVisited = true;
+        visited.setVisited(i2, true);
+        squareClosed(i2);
+        addPath(i2);
     }
 
-    //--------------------- Abstract Methods
-    
     /**
-     * @return An index within the flooder's list of open paths.
-     * @see SolverBase#selectDirection(MazeSquare, List)
+     * Lets the mazeDrawer draw the dead branch ending in the given square.
+     * @param index A square in a dead end of the maze.
      */
-    protected abstract int selectPathIdx();
-    
-    //--------------------- Support Methods for the MasterSolver
-    
+    private void markDeadBranch(int index)
+    {
+        if (Integer.bitCount(getOpenWalls(index, false)) > 1)
+        {
+            // This is a false call.
+            // The subclass MazeSolver regards this square as no longer usable
+            // but it is not a true dead end.
+            return;
+        }
+
+        int length = 0;
+
+        while (openPathCount[index] == 0                    // no more open paths
+            && getOpenWalls(index, true) == 0               // no more unvisited neighbors
+            )
+        {
+            deadBranch[length++] = index;                   // this square is dead
+            index = previousSquare[index];                  // go to previous square
+            openPathCount[index] -= 1;                      // subtract the dead neighbor
+        }
+
+        deadBranch[length++] = index;                       // last (living) square of the dead branch
+
+        if (length > 1)
+        {
+            drawPath(deadBranch, length, false);
+        }
+    }
+
+    //--------------------- Open paths
+
     /**
-     * @param target A visited square, usually, the target square.
-     * @return The path leading from the start square to the given square.
+     * @return Number of open paths, i.e. squares that may still have unvisited neighbors.
      */
-    List<MazeSquare> getPathFromStartSquare(MazeSquare target)
+    protected int getPathCount()
     {
-        List<MazeSquare> result = new LinkedList<MazeSquare>();
+        return pathCount;
+    }
+
+    /**
+     * @param p A position in the list of open paths, between 0 and {@link #getPathCount()} (exclusive).
+     * @return The index of the square at the end of the given path.
+     */
+    protected int getPathSquare(int p)
+    {
+        int q = pathHead + p;
+        return paths[q < paths.length ? q : q - paths.length];
+    }
 
-        MazeSquare sq = target;
-        result.add(sq);
+    /**
+     * @param index The index of a square in the list of open paths.
+     * @return The square's position in the list of open paths.
+     */
+    protected int getPathIdx(int index)
+    {
+        int p = pathPos[index] - pathHead;
+        return (p >= 0 ? p : p + paths.length);
+    }
+
+    /**
+     * @param index A visited square.
+     * @return The index of the square's predecessor on its path; -1 for the start square.
+     */
+    protected int getPreviousSquare(int index)
+    {
+        return previousSquare[index];
+    }
+
+    /**
+     * Appends a square to the list of open paths.
+     * @param index A square index.
+     */
+    private void addPath(int index)
+    {
+        int q = pathHead + pathCount;
+        q = (q < paths.length ? q : q - paths.length);
+        paths[q] = index;
+        pathPos[index] = q;
+        ++pathCount;
+
+        pathAdded(index);
+    }
+
+    /**
+     * Removes a path from the list of open paths.
+     * Removing the first or the last path preserves the order of the remaining paths.
+     * Otherwise, the last path takes the place of the removed one.
+     * @param p A position in the list of open paths.
+     */
+    private void removePath(int p)
+    {
+        int index = getPathSquare(p);
 
-        while (sq != this.maze.getStartSquare())
+        if (p == 0)
+        {
+            pathHead = (pathHead + 1 < paths.length ? pathHead + 1 : 0);
+        }
+        else if (p < pathCount - 1)
         {
-            sq = this.mazeExtension[sq.getXPos()][sq.getYPos()].previousSquare;
-            result.add(0, sq);
+            int last = getPathSquare(pathCount - 1);
+            int q = pathPos[index];
+            paths[q] = last;
+            pathPos[last] = q;
         }
+        --pathCount;
+
+        pathRemoved(index);
+    }
 
-        return result;
+    /**
+     * Called after a square has been added to the list of open paths.
+     * Its {@linkplain #getPreviousSquare(int) predecessor} is already known.
+     * @param index A square index.
+     */
+    protected void pathAdded(int index)
+    {
+        // no action
     }
+
+    /**
+     * Called after a square has been removed from the list of open paths.
+     * @param index A square index.
+     */
+    protected void pathRemoved(int index)
+    {
+        // no action
+    }
+
+    //--------------------- Abstract Methods
+    
+    /**
+     * @return A position within the flooder's list of open paths.
+     * @see #getPathCount()
+     * @see #getPathSquare(int)
+     * @see #selectDirection(int, int)
+     */
+    protected abstract int selectPathIdx();
+
+    /**
+     * Select one of the open walls leading away from the given square.
+     * @param index The square at the end point of the current path.
+     * @param openWalls The valid continuation directions, a non-empty bit mask as returned by {@link #getOpenWalls(int, boolean)}.
+     * @return One of the given directions, depending on the solver strategy.
+     */
+    protected abstract WallPosition selectDirection(int index, int openWalls);
 }
@@ -32,4 +32,11 @@ public interface IMazeDrawer
      * @param sq A square that will never be visited.
      */
     void drawDeadSquare(MazeSquare sq);
+
+    /**
+     * Draws all steps and dead squares in the given buffer, in order.
+     * The buffer is empty afterwards.
+     * @param steps The steps collected by {@link IMazeSolver#step(int, StepBuffer)}.
+     */
+    void drawSteps(StepBuffer steps);
 }
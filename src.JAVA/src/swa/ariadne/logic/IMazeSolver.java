@@ -13,9 +13,17 @@ public interface IMazeSolver
 
     /**
      * Output parameters of the Step() method.
+     * <p>
+     * The solvers work with square indexes; the MazeSquare views are only filled in by {@link IMazeSolver#step(StepResult)}.
      */
     public static class StepResult
     {
+        /** Index of the first (previously visited) square of the step. */
+        public int i1;
+
+        /** Index of the next (neighbor) square. */
+        public int i2;
+
         /** First (previously visited) square of the step. */
         public MazeSquare sq1;
 
@@ -36,12 +44,50 @@ public interface IMazeSolver
 
     /**
      * Travel from one visited square to a neighbor square (through an open wall).
-     * @param out The output parameters: sq1, sq2, forward.
+     * @param out The output parameters: i1, i2, sq1, sq2, forward.
      */
     void step(StepResult out);
 
+    /**
+     * Perform a number of steps and collect them, without drawing.
+     * Squares identified as dead ends (efficient solvers only) are collected in the same buffer.
+     * The last entry of every step is marked with {@link StepBuffer#endStep()}.
+     * @param maxSteps The maximum number of steps.
+     * @param out The steps are appended to this buffer.
+     * @return The number of steps; less than maxSteps only if the maze has been solved.
+     */
+    int step(int maxSteps, StepBuffer out);
+
     /**
      * Find a path in the maze from the start to the end point.
      */
     void solve();
+
+    /**
+     * Find a path in the maze from the start to the end point, without drawing.
+     * @return The number of steps and the time it took.
+     */
+    SolverStatistics solveAndMeasure();
+
+    /**
+     * Enable an algorithm for detecting areas unreachable from the target square.
+     */
+    void makeEfficient();
+
+    /**
+     * @return True if this MazeSolver can detect areas unreachable from the target square.
+     */
+    boolean isEfficientSolver();
+
+    /**
+     * Keep the visited squares in a private set instead of the maze's own flags.
+     * Thereafter, the solver does not modify the maze, and several solvers may work on the same maze concurrently.
+     * Call this method before {@link #reset()}.
+     */
+    void makeIndependent();
+
+    /**
+     * @return True if this MazeSolver has reached the target square.
+     */
+    boolean isSolved();
 }
@@ -0,0 +1,34 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} that keeps its left hand at the wall.
+ */
+public
+class LeftHandWalker extends DeterministicWalker
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public LeftHandWalker(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- DeterministicWalker Implementation
+
+    @Override
+    protected void turn()
+    {
+        turnLeft();
+        while (currentDirectionIsInvalid())
+        {
+            turnRight();
+        }
+    }
+}
@@ -2,11 +2,10 @@ package swa.ariadne.logic;
 
 import java.util.List;
 
-import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 import swa.ariadne.logic.factory.SolverFactory;
 import swa.ariadne.model.Maze;
 import swa.ariadne.model.MazeSquare;
-import swa.ariadne.model.WallPosition;
+import swa.ariadne.model.PathFinder;
 
 /**
  * A {@link IMazeSolver MazeSolver} that knows the solution path and follows it without making any error.
@@ -19,8 +18,8 @@ extends SolverBase
 {
     //--------------------- Member Variables and Properties
 
-    /** The path leading from start to end. */
-    private List<MazeSquare> path;
+    /** The square indexes of the path leading from start to end. */
+    private final int[] path;
 
     /**
      *  @return The path leading from start to end.
@@ -28,7 +27,7 @@ extends SolverBase
      */
     public List<MazeSquare> getPath()
     {
-        return path;
+        return maze.getGrid().getSquares(path);
     }
 
     /** The current position in the path, while solving. */
@@ -45,16 +44,8 @@ extends SolverBase
     {
         super(maze, mazeDrawer);
 
-        // Instead of operating on the original maze, we need to make a copy first.
-        Maze helperMaze = maze.clone();
-        helperMaze.reset();
-
-        // Use another MazeSolver to find the path from start to end.
-        FlooderBase helper = new RoundRobinFlooder(helperMaze, null);
-        helper.reset();
-        helper.solve();
-
-        this.path = helper.getPathFromStartSquare(maze.getTargetSquare());
+        // The PathFinder neither copies nor modifies the maze.
+        this.path = PathFinder.getSolutionPath(maze);
     }
 
     //--------------------- Setup Methods
@@ -68,7 +59,7 @@ extends SolverBase
         this.pathPos = 0;
 
         // Mark the start square as visited.
-        this.path.get(pathPos).isVisited = true;
+        visited.setVisited(path[pathPos], true);
     }
 
     //--------------------- SolverBase Implementation
@@ -76,23 +67,16 @@ extends SolverBase
     @Override
     protected void stepI(StepResult out)
     {
-        if (maze.isSolved())
+        if (isSolved())
         {
             throw new Error("Maze is already solved.");
         }
 
-        out.sq1 = this.path.get(pathPos);
-        out.sq2 = this.path.get(++pathPos);
+        out.i1 = path[pathPos];
+        out.i2 = path[++pathPos];
         out.forward = true;
 
         // Mark the next square as visited.
-        out.sq2.isVisited = true;
-    }
-
-    @Override
-    protected WallPosition selectDirection(MazeSquare sq, List<WallPosition> openWalls)
-    {
-        // As we have our own StepI() implementation, this method will never be called.
-        throw new NotImplementedException();
+        visited.setVisited(path[pathPos], true);
     }
 }
@@ -0,0 +1,24 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers visiting the square that lies on the opposite side of the maze from the start point.
+ */
+public
+class OpposedFlooder extends DistanceGuidedFlooderBase
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public OpposedFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+        this.referenceSquare = maze.getOpposedSquare(maze.getStartSquare());
+    }
+}
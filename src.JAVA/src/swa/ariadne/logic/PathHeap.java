@@ -0,0 +1,220 @@
+package swa.ariadne.logic;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of square indexes, used as the priority queue of open paths.
+ * <p>
+ * Every square has a primary key (a double) and a secondary key (an int).
+ * Squares with equal keys are ordered by insertion: the older square comes first.
+ * The heap position of every square is recorded, so that any square can be removed or re-keyed in O(log n).
+ *
+ * @author Stephan.Wacker@web.de
+ */
+final
+class PathHeap
+{
+    //--------------------- Member variables and Properties
+
+    /** The heap; only the first {@link #size} entries are valid. */
+    private final int[] heap;
+
+    /** Number of squares in the heap. */
+    private int size;
+
+    /** For every square: its position in the heap; -1 if it is not contained. */
+    private final int[] position;
+
+    /** For every square in the heap: the primary key. */
+    private final double[] key;
+
+    /** For every square in the heap: the secondary key (upper 32 bits) and the insertion sequence number. */
+    private final long[] order;
+
+    /** Sequence number of the next inserted square. */
+    private int sequence;
+
+    /** @return Number of squares in the heap. */
+    int size()
+    {
+        return size;
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param squareCount Number of squares in the maze.
+     */
+    PathHeap(int squareCount)
+    {
+        this.heap = new int[squareCount];
+        this.position = new int[squareCount];
+        this.key = new double[squareCount];
+        this.order = new long[squareCount];
+
+        Arrays.fill(position, -1);
+    }
+
+    //--------------------- Queries
+
+    /**
+     * @return The square with the lowest key.
+     */
+    int peek()
+    {
+        return heap[0];
+    }
+
+    /**
+     * @param p A heap position, between 0 and {@link #size()} (exclusive).
+     * @return The square at the given heap position.
+     */
+    int get(int p)
+    {
+        return heap[p];
+    }
+
+    /**
+     * @param index A square index.
+     * @return True if the square is contained in the heap.
+     */
+    boolean contains(int index)
+    {
+        return position[index] >= 0;
+    }
+
+    /**
+     * @param index A square in the heap.
+     * @return The square's primary key.
+     */
+    double getKey(int index)
+    {
+        return key[index];
+    }
+
+    //--------------------- Modifiers
+
+    /**
+     * @param index A square that is not contained in the heap.
+     * @param primaryKey The primary key.
+     * @param secondaryKey The secondary key, for squares with equal primary keys.
+     */
+    void add(int index, double primaryKey, int secondaryKey)
+    {
+        key[index] = primaryKey;
+        order[index] = ((long) secondaryKey << 32) | (sequence++ & 0xFFFFFFFFL);
+
+        heap[size] = index;
+        position[index] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * @param index A square in the heap.
+     */
+    void remove(int index)
+    {
+        int p = position[index];
+        position[index] = -1;
+
+        if (p < --size)
+        {
+            int last = heap[size];
+            heap[p] = last;
+            position[last] = p;
+            if (!siftUp(p))
+            {
+                siftDown(p);
+            }
+        }
+    }
+
+    /**
+     * @param index A square in the heap.
+     * @param primaryKey The new primary key.
+     */
+    void update(int index, double primaryKey)
+    {
+        double oldKey = key[index];
+        key[index] = primaryKey;
+
+        if (primaryKey < oldKey)
+        {
+            siftUp(position[index]);
+        }
+        else
+        {
+            siftDown(position[index]);
+        }
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * @param a A square in the heap.
+     * @param b A square in the heap.
+     * @return True if a has a lower key than b.
+     */
+    private boolean less(int a, int b)
+    {
+        return key[a] < key[b] || (key[a] == key[b] && order[a] < order[b]);
+    }
+
+    /**
+     * @param p A heap position.
+     * @return True if the square was moved.
+     */
+    private boolean siftUp(int p)
+    {
+        int index = heap[p];
+        int p0 = p;
+
+        while (p > 0)
+        {
+            int parent = (p - 1) >>> 1;
+            if (!less(index, heap[parent]))
+            {
+                break;
+            }
+            heap[p] = heap[parent];
+            position[heap[p]] = p;
+            p = parent;
+        }
+
+        heap[p] = index;
+        position[index] = p;
+        return p != p0;
+    }
+
+    /**
+     * @param p A heap position.
+     */
+    private void siftDown(int p)
+    {
+        int index = heap[p];
+
+        while (true)
+        {
+            int child = 2 * p + 1;
+            if (child >= size)
+            {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child]))
+            {
+                ++child;
+            }
+            if (!less(heap[child], index))
+            {
+                break;
+            }
+            heap[p] = heap[child];
+            position[heap[p]] = p;
+            p = child;
+        }
+
+        heap[p] = index;
+        position[index] = p;
+    }
+}
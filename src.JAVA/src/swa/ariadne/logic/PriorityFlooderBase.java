@@ -0,0 +1,219 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+
+/**
+ * Base class for all flooders that continue the open path with the best (lowest) path value.
+ * <p>
+ * The open paths are kept in a {@link PathHeap}, so the best path is found in O(log n) instead of a linear scan.
+ * Path values may change while solving, e.g. when the preferred neighbor of a square has been visited.
+ * When a square is visited or identified as a dead end, the adjacent open paths are re-evaluated immediately;
+ * their values may decrease, e.g. when the last unvisited neighbor is gone.
+ * All other changes are re-evaluated lazily, when a square reaches the top of the heap.
+ * This is correct as long as those path values never decrease.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+abstract
+class PriorityFlooderBase
+extends FlooderBase
+{
+    //--------------------- Member Variables
+
+    /** The open paths, ordered by their path value. */
+    private final PathHeap heap;
+
+    /**
+     * A positive value (less than 1.0) means that selectPathIdx() should select a random path.
+     * High values (close to 1.0) will result in an unbiased (evenly distributed) random choice.
+     * Low values (close to 0.0) will hardly ever choose the path with the worst path value.
+     */
+    protected double randomScale = 0.0;
+
+    /** The highest (finite) path value seen so far; an upper bound of the worst current path value. */
+    private double worstValue;
+
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze.
+     */
+    public PriorityFlooderBase(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+
+        this.heap = new PathHeap(maze.getGrid().getSquareCount());
+    }
+
+    //--------------------- Setup Methods
+
+    @Override
+    public void reset()
+    {
+        worstValue = Double.NEGATIVE_INFINITY;
+
+        super.reset();
+    }
+
+    //--------------------- FlooderBase Implementation
+
+    @Override
+    protected void pathAdded(int index)
+    {
+        heap.add(index, evaluate(index), secondaryPathValue(index));
+    }
+
+    @Override
+    protected void pathRemoved(int index)
+    {
+        heap.remove(index);
+    }
+
+    //--------------------- SolverBase Implementation
+
+    /**
+     * The open paths next to the given square may have lost their preferred (or their last) continuation.
+     * A decreased path value is moved up in the heap now; an increased value is left to {@link #selectBestPath()}.
+     * @see SolverBase#squareClosed(int)
+     */
+    @Override
+    protected void squareClosed(int index)
+    {
+        MazeGrid grid = maze.getGrid();
+
+        for (int bits = grid.getOpenWalls(index); bits != 0; bits &= bits - 1)
+        {
+            int neighbor = grid.getOpenNeighborIndex(index, Integer.numberOfTrailingZeros(bits));
+
+            if (heap.contains(neighbor))
+            {
+                double value = evaluate(neighbor);
+
+                if (value < heap.getKey(neighbor))
+                {
+                    heap.update(neighbor, value);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected int selectPathIdx()
+    {
+        int best = selectBestPath();
+
+        if (0.0 < randomScale && randomScale < 1.0)
+        {
+            return getPathIdx(selectRandomPath(best));
+        }
+
+        return getPathIdx(best);
+    }
+
+    //--------------------- Path selection
+
+    /**
+     * @return The square at the end of the path with the lowest current path value.
+     */
+    private int selectBestPath()
+    {
+        while (true)
+        {
+            int index = heap.peek();
+            double value = evaluate(index);
+
+            if (value <= heap.getKey(index))
+            {
+                return index;
+            }
+
+            // The value has increased; let the square sink to its proper place.
+            heap.update(index, value);
+        }
+    }
+
+    /**
+     * Select a random path.
+     * The paths with a low path value are preferred but other paths may be selected, as well.
+     * Every path is picked with a relative probability between 1.0 (best value) and randomScale (worst value).
+     * <p>
+     * A uniformly chosen path is accepted with its relative probability; otherwise another one is chosen.
+     * Thus, the expected number of trials is no more than 1 / randomScale.
+     * @param best The square at the end of the path with the lowest path value.
+     * @return The square at the end of the selected path.
+     */
+    private int selectRandomPath(int best)
+    {
+        double bestValue = heap.getKey(best);
+
+        if (bestValue == Double.NEGATIVE_INFINITY)
+        {
+            // Immediately report any dead branch.
+            return best;
+        }
+
+        while (true)
+        {
+            int index = heap.get(random.nextInt(heap.size()));
+            double value = evaluate(index);
+
+            if (value > heap.getKey(index))
+            {
+                heap.update(index, value);
+            }
+
+            if (value == Double.NEGATIVE_INFINITY || worstValue <= bestValue)
+            {
+                return index;
+            }
+
+            double weight = ((value - bestValue) * randomScale + (worstValue - value) * 1.0) / (worstValue - bestValue);
+
+            if (random.nextDouble() < weight)
+            {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * @param index A square in the list of open paths.
+     * @return The current path value; the worst value seen so far is updated.
+     */
+    private double evaluate(int index)
+    {
+        double result = pathValue(index);
+
+        if (result > worstValue && result != Double.POSITIVE_INFINITY)
+        {
+            worstValue = result;
+        }
+
+        return result;
+    }
+
+    //--------------------- Abstract Methods
+
+    /**
+     * The value of a path may only decrease when an adjacent square is closed (see {@link #squareClosed(int)}).
+     * Otherwise, it must never decrease while the path is open.
+     * A value of {@link Double#NEGATIVE_INFINITY} means that the path should be selected immediately,
+     * e.g. because it is a dead end.
+     * @param index The square at the end of an open path.
+     * @return The value of the given path.  This value should be minimized.
+     */
+    protected abstract double pathValue(int index);
+
+    /**
+     * @param index The square at the end of an open path.
+     * @return A value that decides between paths with equal {@link #pathValue(int)}.  This value should be minimized.
+     * Paths with equal values are selected in the order they have been added.
+     */
+    protected int secondaryPathValue(int index)
+    {
+        return 0;
+    }
+}
@@ -1,9 +1,6 @@
 package swa.ariadne.logic;
 
-import java.util.List;
-
 import swa.ariadne.model.Maze;
-import swa.ariadne.model.MazeSquare;
 import swa.ariadne.model.WallPosition;
 
 /**
@@ -27,9 +24,9 @@ extends BacktrackerBase
     }
 
     @Override
-    protected WallPosition selectDirection(MazeSquare sq, List<WallPosition> openWalls) 
+    protected WallPosition selectDirection(int index, int openWalls) 
     {
-        return openWalls.get(random.nextInt(openWalls.size()));
+        return randomDirection(openWalls);
     }
 
 }
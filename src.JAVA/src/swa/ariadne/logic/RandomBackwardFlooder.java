@@ -0,0 +1,25 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers the direction leading away from the end point.
+ * Any path may be picked with a probability of 1 in 20 (relative to the preferred path).
+ */
+public
+class RandomBackwardFlooder extends BackwardFlooder
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public RandomBackwardFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+        this.randomScale = 1.0 / (20.0 - 1.0);
+    }
+}
@@ -0,0 +1,38 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Selects a random path and a random direction.
+ */
+public
+class RandomFlooder extends FlooderBase
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public RandomFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- FlooderBase Implementation
+
+    @Override
+    protected int selectPathIdx()
+    {
+        return random.nextInt(getPathCount());
+    }
+
+    @Override
+    protected WallPosition selectDirection(int index, int openWalls)
+    {
+        return randomDirection(openWalls);
+    }
+}
@@ -0,0 +1,71 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * A {@link IMazeSolver MazeSolver} without memory that chooses a random open wall in every step.
+ */
+public
+class RandomWalker extends SolverBase
+{
+    //--------------------- Member variables
+
+    /** Index of the current square. */
+    private int currentIndex;
+
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public RandomWalker(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- Setup methods
+
+    @Override
+    public void reset()
+    {
+        super.reset();
+
+        // Move to the start square.
+        currentIndex = maze.getStartIndex();
+        visited.setVisited(currentIndex, true);
+    }
+
+    //--------------------- SolverBase Implementation
+
+    @Override
+    protected void stepI(StepResult out)
+    {
+        if (isSolved())
+        {
+            throw new Error("Maze is already solved.");
+        }
+
+        MazeGrid grid = maze.getGrid();
+
+        // Get the current position.
+        out.i1 = currentIndex;
+
+        // Possible choices of open walls.
+        int openWalls = grid.getOpenWalls(currentIndex);
+
+        // Select one of the neighbor squares.
+        WallPosition wp = randomDirection(openWalls);
+
+        int next = grid.getOpenNeighborIndex(currentIndex, wp.ordinal());
+        out.i2 = next;
+        out.forward = !visited.isVisited(next);
+
+        // Remember the new position.
+        currentIndex = next;
+        visited.setVisited(next, true);
+    }
+}
@@ -0,0 +1,34 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} that keeps its right hand at the wall.
+ */
+public
+class RightHandWalker extends DeterministicWalker
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public RightHandWalker(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+    }
+
+    //--------------------- DeterministicWalker Implementation
+
+    @Override
+    protected void turn()
+    {
+        turnRight();
+        while (currentDirectionIsInvalid())
+        {
+            turnLeft();
+        }
+    }
+}
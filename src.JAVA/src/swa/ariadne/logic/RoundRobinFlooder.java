@@ -1,7 +1,5 @@
 package swa.ariadne.logic;
 
-import java.util.*;
-
 import swa.ariadne.model.*;
 
 /**
@@ -33,9 +31,9 @@ class RoundRobinFlooder extends FlooderBase
     }
 
     @Override
-    protected WallPosition selectDirection(MazeSquare sq, List<WallPosition> openWalls)
+    protected WallPosition selectDirection(int index, int openWalls)
     {
-        return openWalls.get(0);
+        return firstDirection(openWalls);
     }
 
 }
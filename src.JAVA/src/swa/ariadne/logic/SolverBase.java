@@ -1,10 +1,10 @@
 package swa.ariadne.logic;
 
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
 
+import swa.ariadne.logic.factory.SolverFactory;
 import swa.ariadne.model.*;
 import swa.util.RandomFactory;
 
@@ -16,6 +16,14 @@ import swa.util.RandomFactory;
 abstract class SolverBase
 implements IMazeSolver
 {
+    //--------------------- Constants
+
+    /** All WallPosition values, indexed by their ordinal. */
+    protected static final WallPosition[] wallPositions = WallPosition.values();
+
+    /** Number of steps that {@link #solve()} passes to the mazeDrawer at once. */
+    private static final int SolveBatchSize = 1024;
+
     //--------------------- Member Variables and Properties
 
     /** The problem to be solved. */
@@ -27,6 +35,18 @@ implements IMazeSolver
     /** A source of random numbers. */
     protected Random random;
 
+    /** Some ("efficient") subclasses may make use of a DeadEndChecker to avoid certain areas. */
+    protected DeadEndChecker deadEndChecker = null;
+
+    /** The squares visited by this solver; the maze's own set unless the solver is {@linkplain #makeIndependent() independent}. */
+    protected VisitedSet visited;
+
+    /** Reused by {@link #step(int, StepBuffer)}. */
+    private final StepResult stepResult = new StepResult();
+
+    /** While {@link #step(int, StepBuffer)} is running: the buffer that receives all drawing operations. */
+    private StepBuffer stepBuffer = null;
+
     //--------------------- Constructor
 
     /**
@@ -39,6 +59,7 @@ implements IMazeSolver
         this.maze = maze;
         this.mazeDrawer = mazeDrawer;
         this.random = RandomFactory.createRandom();
+        this.visited = maze.getGrid().getVisitedSet();
     }
 
     //--------------------- IMazeSolver methods
@@ -49,7 +70,54 @@ implements IMazeSolver
     @Override
     public void reset()
     {
-        // no action
+        if (visited != maze.getGrid().getVisitedSet())
+        {
+            // The maze's own set is cleared by Maze.reset().
+            visited.clear();
+        }
+
+        if (deadEndChecker != null)
+        {
+            // Forget the squares visited before the reset.
+            deadEndChecker.reset();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.IMazeSolver#makeEfficient()
+     */
+    @Override
+    public void makeEfficient()
+    {
+        // An efficient MazeSolver has a DeadEndChecker.
+        deadEndChecker = new DeadEndChecker(maze);
+    }
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.IMazeSolver#makeIndependent()
+     */
+    @Override
+    public void makeIndependent()
+    {
+        visited = new VisitedSet(maze.getGrid().getSquareCount());
+    }
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.IMazeSolver#isSolved()
+     */
+    @Override
+    public boolean isSolved()
+    {
+        return visited.isVisited(maze.getTargetIndex());
+    }
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.IMazeSolver#isEfficientSolver()
+     */
+    @Override
+    public boolean isEfficientSolver()
+    {
+        return (deadEndChecker != null);
     }
 
     /* (non-Javadoc)
@@ -60,18 +128,65 @@ implements IMazeSolver
     {
         stepI(out);
 
-        /* TODO
+        MazeGrid grid = maze.getGrid();
+        out.sq1 = grid.getSquare(out.i1);
+        out.sq2 = grid.getSquare(out.i2);
+
         //--------------------- Apply the dead end checker.
-        if (deadEndChecker != null && mazeDrawer != null)
+        if (deadEndChecker != null)
         {
-            List<MazeSquare> deadSquares = deadEndChecker.Visit(sq2);
-            for (MazeSquare deadSq : deadSquares)
+            int n = checkDeadEnds(out.i2);
+            if (mazeDrawer != null)
             {
-                mazeDrawer.DrawDeadSquare(deadSq);
+                for (int k = 0; k < n; k++)
+                {
+                    mazeDrawer.drawDeadSquare(grid.getSquare(deadEndChecker.getKilledSquare(k)));
+                }
             }
         }
-        //---------------------
-         */
+    }
+
+    /* (non-Javadoc)
+     * @see swa.ariadne.logic.IMazeSolver#step(int, swa.ariadne.logic.StepBuffer)
+     */
+    @Override
+    public int step(int maxSteps, StepBuffer out)
+    {
+        StepResult step = this.stepResult;
+        int result = 0;
+
+        // Paths drawn by the subclass while stepping are collected, too.
+        stepBuffer = out;
+
+        try
+        {
+            while (result < maxSteps && !isSolved())
+            {
+                stepI(step);
+                ++result;
+
+                int i2 = step.i2;
+                out.addStep(step.i1, i2, step.forward);
+
+                // Apply the dead end checker.
+                if (deadEndChecker != null)
+                {
+                    int n = checkDeadEnds(i2);
+                    for (int k = 0; k < n; k++)
+                    {
+                        out.addDeadSquare(deadEndChecker.getKilledSquare(k));
+                    }
+                }
+
+                out.endStep();
+            }
+        }
+        finally
+        {
+            stepBuffer = null;
+        }
+
+        return result;
     }
 
     //--------------------- Abstract Methods
@@ -79,18 +194,39 @@ implements IMazeSolver
     /**
      * Travel from one visited square to a neighbor square (through an open wall).
      * Implementation of Step().
-     * @param out The output parameters: sq1, sq2, forward.
+     * @param out The output parameters: i1, i2, forward.
      * @see IMazeSolver#step(IMazeSolver.StepResult)
      */
     protected abstract void stepI(StepResult out);
-    
+
+    //--------------------- Notifications
+
     /**
-     * Select one of the open walls leading away from the given square.
-     * @param sq The square at the end point of the current path.
-     * @param openWalls The valid continuation directions.
-     * @return One of the given directions, depending on the solver strategy.
+     * Called when a square may no longer be entered:
+     * it has just been visited or it has been identified as a dead end.
+     * @param index The square.
      */
-    protected abstract WallPosition selectDirection(MazeSquare sq, List<WallPosition> openWalls);
+    protected void squareClosed(int index)
+    {
+        // no action
+    }
+
+    /**
+     * Applies the dead end checker after a step and reports the killed squares to {@link #squareClosed(int)}.
+     * @param index The square that has just been visited.
+     * @return Number of squares identified as dead ends; see {@link DeadEndChecker#getKilledSquare(int)}.
+     */
+    private int checkDeadEnds(int index)
+    {
+        int n = deadEndChecker.visit(index);
+
+        for (int k = 0; k < n; k++)
+        {
+            squareClosed(deadEndChecker.getKilledSquare(k));
+        }
+
+        return n;
+    }
 
     //--------------------- MazeSolver Implementation
 
@@ -98,60 +234,149 @@ implements IMazeSolver
      * Find a path in the maze from the start to the end point.
      */
     public void solve()
+    {
+        if (mazeDrawer == null)
+        {
+            solveAndMeasure();
+            return;
+        }
+
+        StepBuffer steps = new StepBuffer(SolveBatchSize);
+
+        while (!isSolved())
+        {
+            this.step(SolveBatchSize, steps);
+            mazeDrawer.drawSteps(steps);
+        }
+    }
+
+    /**
+     * Find a path in the maze from the start to the end point, without drawing.
+     * @return The number of steps and the time it took.
+     */
+    public SolverStatistics solveAndMeasure()
     {
         StepResult step = new StepResult();
+        long forwardSteps = 0, backwardSteps = 0;
+        long t0 = System.nanoTime();
 
-        while (!maze.isSolved())
+        while (!isSolved())
         {
-            this.step(step);
-            if (mazeDrawer != null)
+            // Like step(StepResult), without creating MazeSquare views.
+            stepI(step);
+            if (deadEndChecker != null)
+            {
+                checkDeadEnds(step.i2);
+            }
+
+            if (step.forward)
+            {
+                ++forwardSteps;
+            }
+            else
             {
-                mazeDrawer.drawStep(step.sq1, step.sq2, step.forward);
+                ++backwardSteps;
             }
         }
+
+        long nanos = System.nanoTime() - t0;
+
+        return new SolverStatistics(getStrategyName(), forwardSteps, backwardSteps, visited.count(), nanos);
     }
 
     //--------------------- Auxiliary Methods for Derived Classes
 
     /**
-     * @param sq A square in the maze.
+     * @param index A square index.
      * @param notVisitedOnly When true: Exclude neighbors that have already been visited.
-     * @return A list of directions leading from the given square to neighbors through open walls.
+     * @return A bit mask of the directions leading from the given square to neighbors through open walls:
+     * bit <code>wp.ordinal()</code> is set for every such direction wp.
      * Neighbors that have been identified as dead ends are excluded (efficient solvers only).
+     * @see MazeGrid#getOpenWalls(int)
      */
-    protected List<WallPosition> getOpenWalls(MazeSquare sq, boolean notVisitedOnly)
+    protected int getOpenWalls(int index, boolean notVisitedOnly)
     {
-        List<WallPosition> result = new ArrayList<WallPosition>(WallPosition.NUM);
+        MazeGrid grid = maze.getGrid();
+        int result = grid.getOpenWalls(index);
 
-        for (WallPosition wp : WallPosition.values())
+        if (notVisitedOnly || deadEndChecker != null)
         {
-            if (sq.getWall(wp) == WallState.WS_OPEN)
+            for (int bits = result; bits != 0; bits &= bits - 1)
             {
-                MazeSquare sq2 = sq.getNeighbor(wp);
-
-                if (notVisitedOnly)
-                {
-                    // Exclude squares that have already been visited.
-                    if (sq2.isVisited)
-                    {
-                        continue;
-                    }
-                }
+                int side = Integer.numberOfTrailingZeros(bits);
+                int neighbor = grid.getOpenNeighborIndex(index, side);
 
-                /* TODO
+                // Exclude squares that have already been visited.
                 // Exclude squares that need not be visited because they are dead ends.
-                if (this.deadEndChecker != null && deadEndChecker.IsDead(sq2))
+                if ((notVisitedOnly && visited.isVisited(neighbor))
+                    || (deadEndChecker != null && deadEndChecker.isDead(neighbor)))
                 {
-                    continue;
+                    result &= ~(1 << side);
                 }
-                 */
-
-                result.add(wp);
             }
         }
 
         return result;
     }
 
+    /**
+     * Lets the mazeDrawer draw the path between the given squares.
+     * While {@link #step(int, StepBuffer)} is running, the path is added to the StepBuffer, instead.
+     * @param path A list of square indexes, each a neighbor of the previous one.
+     * @param length Number of squares in the path.
+     * @param forward Selects the drawing color.
+     * @see IMazeDrawer
+     */
+    protected void drawPath(int[] path, int length, boolean forward)
+    {
+        if (stepBuffer != null)
+        {
+            for (int i = 1; i < length; i++)
+            {
+                stepBuffer.addStep(path[i - 1], path[i], forward);
+            }
+
+            // Redraw the square where the branching occurred.
+            stepBuffer.addDot(path[length - 1]);
+        }
+        else if (mazeDrawer != null)
+        {
+            mazeDrawer.drawPath(maze.getGrid().getSquares(Arrays.copyOf(path, length)), forward);
+        }
+    }
+
+    /**
+     * @param openWalls A non-empty bit mask of directions.
+     * @return The first of the given directions.
+     */
+    protected static WallPosition firstDirection(int openWalls)
+    {
+        return wallPositions[Integer.numberOfTrailingZeros(openWalls)];
+    }
+
+    /**
+     * @param openWalls A non-empty bit mask of directions.
+     * @return One of the given directions, chosen at random.
+     */
+    protected WallPosition randomDirection(int openWalls)
+    {
+        // Skip a random number of the set bits.
+        for (int k = random.nextInt(Integer.bitCount(openWalls)); k > 0; k--)
+        {
+            openWalls &= openWalls - 1;
+        }
+
+        return firstDirection(openWalls);
+    }
+
+    /**
+     * @return The solver's class name, with the {@link SolverFactory#EfficientPrefix} if it is efficient.
+     */
+    protected String getStrategyName()
+    {
+        String name = getClass().getSimpleName();
+        return (isEfficientSolver() ? SolverFactory.EfficientPrefix + name : name);
+    }
+
   //---------------------
 }
@@ -0,0 +1,146 @@
+package swa.ariadne.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import swa.ariadne.logic.factory.SolverFactory;
+import swa.ariadne.model.Maze;
+
+/**
+ * Lets many {@link IMazeSolver MazeSolvers} solve the same maze concurrently.
+ * <p>
+ * All solvers are {@linkplain IMazeSolver#makeIndependent() independent}: they keep their visited squares to themselves.
+ * The maze is shared by all of them and is not modified.
+ * The result is a leaderboard: the statistics of all solvers, ordered by their number of steps.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class SolverRace
+{
+    //--------------------- Member variables and Properties
+
+    /** The maze shared by all solvers. */
+    private final Maze maze;
+
+    /** The pool executing the solvers. */
+    private final ForkJoinPool pool;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * The solvers are executed in the common fork-join pool.
+     * @param maze A completely built maze.
+     */
+    public SolverRace(Maze maze)
+    {
+        this(maze, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     * @param maze A completely built maze.
+     * @param pool The pool executing the solvers.
+     */
+    public SolverRace(Maze maze, ForkJoinPool pool)
+    {
+        this.maze = maze;
+        this.pool = pool;
+    }
+
+    //--------------------- Running
+
+    /**
+     * Solves the maze with all given strategies and waits until every solver has reached the target.
+     * @param strategyNames Names of the solver strategies, see {@link SolverFactory}; a name may appear more than once.
+     * @return The leaderboard: one entry per strategy name, fewest steps first.
+     * Solvers with equal step counts appear in the order of the given names.
+     */
+    public List<SolverStatistics> run(List<String> strategyNames)
+    {
+        // All solvers are created before the race begins.
+        IMazeSolver[] solvers = new IMazeSolver[strategyNames.size()];
+        for (int i = 0; i < solvers.length; i++)
+        {
+            solvers[i] = SolverFactory.createIndependentSolver(strategyNames.get(i), maze);
+        }
+
+        SolverStatistics[] results = new SolverStatistics[solvers.length];
+        pool.invoke(new RaceTask(solvers, 0, solvers.length, results));
+
+        List<SolverStatistics> result = new ArrayList<SolverStatistics>(Arrays.asList(results));
+        Collections.sort(result, new Comparator<SolverStatistics>()
+        {
+            @Override
+            public int compare(SolverStatistics s1, SolverStatistics s2)
+            {
+                return Long.compare(s1.getSteps(), s2.getSteps());
+            }
+        });
+
+        return result;
+    }
+
+    //--------------------- Types
+
+    /**
+     * Runs a range of solvers, splitting the range until there is only one solver.
+     */
+    private static final class RaceTask
+    extends RecursiveAction
+    {
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** All solvers. */
+        private final IMazeSolver[] solvers;
+
+        /** First solver index of this task (inclusive). */
+        private final int from;
+
+        /** Last solver index of this task (exclusive). */
+        private final int to;
+
+        /** Receives the statistics of solvers[i] at index i. */
+        private final SolverStatistics[] result;
+
+        /**
+         * Constructor.
+         * @param solvers All solvers.
+         * @param from First solver index of this task (inclusive).
+         * @param to Last solver index of this task (exclusive).
+         * @param result Receives the statistics of solvers[i] at index i.
+         */
+        RaceTask(IMazeSolver[] solvers, int from, int to, SolverStatistics[] result)
+        {
+            this.solvers = solvers;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= 1)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    result[i] = solvers[i].solveAndMeasure();
+                }
+            }
+            else
+            {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RaceTask(solvers, from, mid, result),
+                          new RaceTask(solvers, mid, to, result));
+            }
+        }
+    }
+}
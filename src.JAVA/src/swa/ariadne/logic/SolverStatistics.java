@@ -0,0 +1,91 @@
+package swa.ariadne.logic;
+
+/**
+ * The result of {@link IMazeSolver#solveAndMeasure()}: step counts and time of a complete solution.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class SolverStatistics
+{
+    //--------------------- Member variables and Properties
+
+    /** Name of the solver strategy. */
+    private final String strategyName;
+
+    /** @return Name of the solver strategy. */
+    public String getStrategyName()
+    {
+        return strategyName;
+    }
+
+    /** Number of steps into squares that had not been visited before. */
+    private final long forwardSteps;
+
+    /** @return Number of steps into squares that had not been visited before. */
+    public long getForwardSteps()
+    {
+        return forwardSteps;
+    }
+
+    /** Number of steps back into squares that had been visited before. */
+    private final long backwardSteps;
+
+    /** @return Number of steps back into squares that had been visited before. */
+    public long getBackwardSteps()
+    {
+        return backwardSteps;
+    }
+
+    /** @return Total number of steps. */
+    public long getSteps()
+    {
+        return forwardSteps + backwardSteps;
+    }
+
+    /** Number of visited squares, including the start square. */
+    private final int visitedSquares;
+
+    /** @return Number of visited squares, including the start square. */
+    public int getVisitedSquares()
+    {
+        return visitedSquares;
+    }
+
+    /** Time spent solving the maze, in nanoseconds. */
+    private final long nanos;
+
+    /** @return Time spent solving the maze, in nanoseconds. */
+    public long getNanos()
+    {
+        return nanos;
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param strategyName Name of the solver strategy.
+     * @param forwardSteps Number of steps into squares that had not been visited before.
+     * @param backwardSteps Number of steps back into squares that had been visited before.
+     * @param visitedSquares Number of visited squares.
+     * @param nanos Time spent solving the maze, in nanoseconds.
+     */
+    public SolverStatistics(String strategyName, long forwardSteps, long backwardSteps, int visitedSquares, long nanos)
+    {
+        this.strategyName = strategyName;
+        this.forwardSteps = forwardSteps;
+        this.backwardSteps = backwardSteps;
+        this.visitedSquares = visitedSquares;
+        this.nanos = nanos;
+    }
+
+    //--------------------- Auxiliary Methods
+
+    @Override
+    public String toString()
+    {
+        return strategyName + ": " + getSteps() + " steps, " + forwardSteps + " forward, " + backwardSteps + " backward, "
+            + visitedSquares + " visited, " + nanos + " ns";
+    }
+}
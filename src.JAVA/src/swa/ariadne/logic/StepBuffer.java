@@ -0,0 +1,230 @@
+package swa.ariadne.logic;
+
+/**
+ * A reusable queue of solver steps, passed from a {@link IMazeSolver MazeSolver} to an {@link IMazeDrawer}.
+ * <p>
+ * Every entry is either a step between two adjoining squares, a square where a path branches off
+ * or a square that has been identified as a dead end.
+ * The last entry collected for a solver step is marked, so that a consumer can count solver steps
+ * regardless of the paths and dead squares drawn along with them.
+ * Squares are stored as indexes in primitive arrays; adding and removing entries does not allocate.
+ * The buffer is a ring: entries are appended at the end and removed from the front.
+ * It grows if necessary, e.g. when a single step kills more dead squares than the remaining capacity.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class StepBuffer
+{
+    //--------------------- Constants
+
+    /** Kind of an entry: a step to a previously visited square. */
+    public static final byte Backward = 0;
+
+    /** Kind of an entry: a step to a newly visited square. */
+    public static final byte Forward = 1;
+
+    /** Kind of an entry: a square that will never be visited. */
+    public static final byte DeadSquare = 2;
+
+    /** Kind of an entry: a visited square that is painted again, e.g. where a path branches off. */
+    public static final byte Dot = 3;
+
+    //--------------------- Member variables and Properties
+
+    /** For every entry: the index of the square where the step begins. */
+    private int[] from;
+
+    /** For every entry: the index of the square where the step ends. */
+    private int[] to;
+
+    /** For every entry: one of {@link #Backward}, {@link #Forward}, {@link #DeadSquare} or {@link #Dot}. */
+    private byte[] kind;
+
+    /** For every entry: true if it is the last entry of a solver step. */
+    private boolean[] stepEnd;
+
+    /** Capacity - 1; the capacity is a power of two. */
+    private int mask;
+
+    /** Position of the first entry. */
+    private int head;
+
+    /** Number of entries. */
+    private int size;
+
+    /** @return Number of entries. */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @return True if there are no entries. */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param capacity The initial number of entries the buffer can hold without growing.
+     */
+    public StepBuffer(int capacity)
+    {
+        int n = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+
+        this.from = new int[n];
+        this.to = new int[n];
+        this.kind = new byte[n];
+        this.stepEnd = new boolean[n];
+        this.mask = n - 1;
+    }
+
+    //--------------------- Queries
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return The index of the square where the step begins.
+     */
+    public int getFrom(int k)
+    {
+        return from[(head + k) & mask];
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return The index of the square where the step ends; the single square of a {@link #DeadSquare} or {@link #Dot} entry.
+     */
+    public int getTo(int k)
+    {
+        return to[(head + k) & mask];
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return One of {@link #Backward}, {@link #Forward}, {@link #DeadSquare} or {@link #Dot}.
+     */
+    public byte getKind(int k)
+    {
+        return kind[(head + k) & mask];
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return True if the entry is the last one of a solver step.
+     */
+    public boolean isStepEnd(int k)
+    {
+        return stepEnd[(head + k) & mask];
+    }
+
+    //--------------------- Modifiers
+
+    /**
+     * Appends a step between two adjoining squares.
+     * @param sq1 The index of the square where the step begins.
+     * @param sq2 The index of the square where the step ends.
+     * @param forward True if sq2 has not been visited before.
+     */
+    public void addStep(int sq1, int sq2, boolean forward)
+    {
+        add(sq1, sq2, forward ? Forward : Backward);
+    }
+
+    /**
+     * Appends a square that has been identified as a dead end.
+     * @param index A square index.
+     */
+    public void addDeadSquare(int index)
+    {
+        add(index, index, DeadSquare);
+    }
+
+    /**
+     * Appends a visited square that is painted again.
+     * @param index A square index.
+     */
+    public void addDot(int index)
+    {
+        add(index, index, Dot);
+    }
+
+    /**
+     * Marks the last entry as the end of a solver step.
+     * All entries since the previous mark belong to the same step.
+     */
+    public void endStep()
+    {
+        stepEnd[(head + size - 1) & mask] = true;
+    }
+
+    /**
+     * Removes entries from the front.
+     * @param n Number of removed entries, no more than {@link #size()}.
+     */
+    public void remove(int n)
+    {
+        head = (head + n) & mask;
+        size -= n;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * @param sq1 The from square.
+     * @param sq2 The to square.
+     * @param k The kind of entry.
+     */
+    private void add(int sq1, int sq2, byte k)
+    {
+        if (size > mask)
+        {
+            grow();
+        }
+
+        int q = (head + size) & mask;
+        from[q] = sq1;
+        to[q] = sq2;
+        kind[q] = k;
+        stepEnd[q] = false;
+        ++size;
+    }
+
+    /**
+     * Doubles the capacity; the entries are moved to the front of the new arrays.
+     */
+    private void grow()
+    {
+        int n = 2 * (mask + 1);
+        int[] newFrom = new int[n], newTo = new int[n];
+        byte[] newKind = new byte[n];
+        boolean[] newStepEnd = new boolean[n];
+
+        for (int k = 0; k < size; k++)
+        {
+            int q = (head + k) & mask;
+            newFrom[k] = from[q];
+            newTo[k] = to[q];
+            newKind[k] = kind[q];
+            newStepEnd[k] = stepEnd[q];
+        }
+
+        this.from = newFrom;
+        this.to = newTo;
+        this.kind = newKind;
+        this.stepEnd = newStepEnd;
+        this.mask = n - 1;
+        this.head = 0;
+    }
+}
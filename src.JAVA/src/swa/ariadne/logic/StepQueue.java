@@ -0,0 +1,165 @@
+package swa.ariadne.logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free queue of solver steps, passed from a single producer thread to a single consumer thread.
+ * <p>
+ * The producer is a {@link IMazeSolver MazeSolver} running on a worker thread,
+ * the consumer is the painter, draining the queue once per frame.
+ * Entries are the same as in a {@link StepBuffer}; both sides exchange them in batches.
+ * The consumer counts solver steps by the marked last entries of each step.
+ * <p>
+ * The entries are kept in a fixed ring of primitive arrays.
+ * Each side publishes its position with an ordered write after it has written or read the entries.
+ * Each side also keeps a cached copy of the other side's position and reads the shared value
+ * only when the cached one is not sufficient.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class StepQueue
+{
+    //--------------------- Member variables and Properties
+
+    /** For every entry: the index of the square where the step begins. */
+    private final int[] from;
+
+    /** For every entry: the index of the square where the step ends. */
+    private final int[] to;
+
+    /** For every entry: its {@link StepBuffer} kind. */
+    private final byte[] kind;
+
+    /** For every entry: true if it is the last entry of a solver step. */
+    private final boolean[] stepEnd;
+
+    /** Capacity - 1; the capacity is a power of two. */
+    private final int mask;
+
+    /** Number of entries ever written; only modified by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Number of entries ever read; only modified by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+
+    /** The producer's copy of {@link #head}. */
+    private long headCache;
+
+    /** The consumer's copy of {@link #tail}. */
+    private long tailCache;
+
+    /** @return True if the consumer has read all entries written by the producer. */
+    public boolean isEmpty()
+    {
+        return head.get() == tail.get();
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param capacity The minimum number of entries the queue can hold; rounded up to a power of two.
+     */
+    public StepQueue(int capacity)
+    {
+        int n = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+
+        this.from = new int[n];
+        this.to = new int[n];
+        this.kind = new byte[n];
+        this.stepEnd = new boolean[n];
+        this.mask = n - 1;
+    }
+
+    //--------------------- Producer methods
+
+    /**
+     * Moves as many entries as possible from the front of the given buffer into the queue.
+     * Only the producer thread may call this method.
+     * @param steps Entries collected by {@link IMazeSolver#step(int, StepBuffer)}.
+     * @return The number of moved entries; 0 if the queue is full.
+     */
+    public int offer(StepBuffer steps)
+    {
+        long t = tail.get();
+        int n = steps.size();
+
+        if (t + n - headCache > mask + 1)
+        {
+            headCache = head.get();
+            n = (int) Math.min(n, mask + 1 - (t - headCache));
+        }
+
+        for (int k = 0; k < n; k++)
+        {
+            int q = (int) (t + k) & mask;
+            from[q] = steps.getFrom(k);
+            to[q] = steps.getTo(k);
+            kind[q] = steps.getKind(k);
+            stepEnd[q] = steps.isStepEnd(k);
+        }
+
+        steps.remove(n);
+        tail.lazySet(t + n);
+
+        return n;
+    }
+
+    //--------------------- Consumer methods
+
+    /**
+     * Moves entries from the queue into the given buffer, up to the end of the given number of solver steps.
+     * All entries of a solver step (paths, dots and dead squares) count as a single step.
+     * If the producer has not yet published enough steps, all available entries are moved;
+     * they may end in the middle of a step, which is then counted by a later call.
+     * Only the consumer thread may call this method.
+     * @param out The entries are appended to this buffer.
+     * @param maxSteps The maximum number of completed solver steps.
+     * @return The number of completed solver steps.
+     */
+    public int poll(StepBuffer out, int maxSteps)
+    {
+        long h = head.get();
+        int result = 0;
+
+        while (result < maxSteps)
+        {
+            if (h == tailCache)
+            {
+                tailCache = tail.get();
+                if (h == tailCache)
+                {
+                    break;
+                }
+            }
+
+            int q = (int) h & mask;
+            byte k = kind[q];
+            ++h;
+
+            if (k == StepBuffer.DeadSquare)
+            {
+                out.addDeadSquare(to[q]);
+            }
+            else if (k == StepBuffer.Dot)
+            {
+                out.addDot(to[q]);
+            }
+            else
+            {
+                out.addStep(from[q], to[q], k == StepBuffer.Forward);
+            }
+
+            if (stepEnd[q])
+            {
+                out.endStep();
+                ++result;
+            }
+        }
+
+        head.lazySet(h);
+
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers the path with the fewest forks (weighted by the number of branches) since the start point.
+ * Among equally thick paths, prefers the longest one.
+ */
+public
+class ThickestBranchFlooder extends PriorityFlooderBase
+{
+    //--------------------- Member Variables
+
+    /** Natural logarithm of the number of branches; index 0 is not used. */
+    private static final float[] branchesLog = { -1, 0, (float) Math.log(2), (float) Math.log(3) };
+
+    /** For every visited square: the length of its path. */
+    private final int[] branchLength;
+
+    /**
+     * For every visited square: the (logarithmic) thickness of its branch.
+     * The start square has thickness 0; every fork divides the thickness by the number of branches.
+     */
+    private final float[] branchThickness;
+
+    /** +1 (prefer thick branches) or -1 (prefer thin branches). */
+    protected int thicknessSign = +1;
+
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public ThickestBranchFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+
+        int n = maze.getGrid().getSquareCount();
+        this.branchLength = new int[n];
+        this.branchThickness = new float[n];
+    }
+
+    //--------------------- PriorityFlooderBase Implementation
+
+    @Override
+    protected void pathAdded(int index)
+    {
+        int previous = getPreviousSquare(index);
+
+        if (previous < 0)
+        {
+            // This is the start square.
+            branchLength[index] = 0;
+            branchThickness[index] = 0;
+        }
+        else
+        {
+            // The branch's length is increased by 1.
+            branchLength[index] = branchLength[previous] + 1;
+
+            // The branch's thickness is divided by the number of branches leading away.
+            int branches = Math.max(1, Integer.bitCount(getOpenWalls(index, false)) - 1);
+            branchThickness[index] = branchThickness[previous] - branchesLog[branches];
+        }
+
+        super.pathAdded(index);
+    }
+
+    @Override
+    protected double pathValue(int index)
+    {
+        return -thicknessSign * branchThickness[index];
+    }
+
+    @Override
+    protected int secondaryPathValue(int index)
+    {
+        return -thicknessSign * branchLength[index];
+    }
+
+    @Override
+    protected WallPosition selectDirection(int index, int openWalls)
+    {
+        return randomDirection(openWalls);
+    }
+}
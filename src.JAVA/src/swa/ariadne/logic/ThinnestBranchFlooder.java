@@ -0,0 +1,27 @@
+package swa.ariadne.logic;
+
+import swa.ariadne.model.Maze;
+
+/**
+ * A {@link IMazeSolver MazeSolver} with many concurrent paths.
+ * Prefers the path with the most forks (weighted by the number of branches) since the start point.
+ * Among equally thin paths, prefers the shortest one.
+ */
+public
+class ThinnestBranchFlooder extends ThickestBranchFlooder
+{
+    //--------------------- Constructor
+
+    /**
+     * Constructor.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     */
+    public ThinnestBranchFlooder(Maze maze, IMazeDrawer mazeDrawer)
+    {
+        super(maze, mazeDrawer);
+
+        // Invert the parent strategy: Prefer thin branches.
+        this.thicknessSign = -1;
+    }
+}
@@ -3,13 +3,33 @@ package swa.ariadne.logic.factory;
 import java.lang.reflect.Type;
 import java.util.List;
 
+import swa.ariadne.logic.BackwardFlooder;
+import swa.ariadne.logic.CenterFlooder;
+import swa.ariadne.logic.CloseFlooder;
+import swa.ariadne.logic.CornerFlooder;
+import swa.ariadne.logic.FarFlooder;
+import swa.ariadne.logic.ForwardFlooder;
+import swa.ariadne.logic.HesitatingFlooder;
 import swa.ariadne.logic.IMazeDrawer;
 import swa.ariadne.logic.IMazeSolver;
+import swa.ariadne.logic.LeftHandWalker;
 import swa.ariadne.logic.MasterSolver;
+import swa.ariadne.logic.OpposedFlooder;
+import swa.ariadne.logic.ProximityFlooder;
 import swa.ariadne.logic.RandomBacktracker;
+import swa.ariadne.logic.RandomBackwardFlooder;
+import swa.ariadne.logic.RandomFlooder;
+import swa.ariadne.logic.RandomForwardFlooder;
+import swa.ariadne.logic.RandomWalker;
+import swa.ariadne.logic.RightHandWalker;
 import swa.ariadne.logic.RoundRobinFlooder;
+import swa.ariadne.logic.SolverStatistics;
+import swa.ariadne.logic.ThickestBranchFlooder;
+import swa.ariadne.logic.ThinnestBranchFlooder;
 import swa.ariadne.model.Maze;
 import swa.ariadne.model.MazeSquare;
+import swa.ariadne.model.PathFinder;
+import swa.ariadne.settings.RegisteredOptions;
 import swa.util.RandomFactory;
 
 /**
@@ -29,25 +49,25 @@ class SolverFactory
         // OpposedBacktracker.class,
         RandomBacktracker.class,
         MasterSolver.class,
-        // RightHandWalker.class,
-        // LeftHandWalker.class,
-        // RandomWalker.class,
+        RightHandWalker.class,
+        LeftHandWalker.class,
+        RandomWalker.class,
         RoundRobinFlooder.class,
-        // CloseFlooder.class,
-        // FarFlooder.class,
-        // OpposedFlooder.class,
-        // ProximityFlooder.class,
-        // HesitatingFlooder.class,
-        // CenterFlooder.class,
-        // CornerFlooder.class,
-        // ForwardFlooder.class,
-        // BackwardFlooder.class,
-        // RandomForwardFlooder.class,
-        // RandomBackwardFlooder.class,
-        // ThickestBranchFlooder.class,
-        // ThinnestBranchFlooder.class,
+        CloseFlooder.class,
+        FarFlooder.class,
+        OpposedFlooder.class,
+        ProximityFlooder.class,
+        HesitatingFlooder.class,
+        CenterFlooder.class,
+        CornerFlooder.class,
+        ForwardFlooder.class,
+        BackwardFlooder.class,
+        RandomForwardFlooder.class,
+        RandomBackwardFlooder.class,
+        ThickestBranchFlooder.class,
+        ThinnestBranchFlooder.class,
         // SpreadingFlooder.class,
-        // RandomFlooder.class,
+        RandomFlooder.class,
     };
     
     /**
@@ -57,7 +77,24 @@ class SolverFactory
     private static SolverConstructor[] solvers = {
         Solvers.RandomBacktracker(),
         Solvers.MasterSolver(),
+        Solvers.RightHandWalker(),
+        Solvers.LeftHandWalker(),
+        Solvers.RandomWalker(),
         Solvers.RoundRobinFlooder(),
+        Solvers.CloseFlooder(),
+        Solvers.FarFlooder(),
+        Solvers.OpposedFlooder(),
+        Solvers.ProximityFlooder(),
+        Solvers.HesitatingFlooder(),
+        Solvers.CenterFlooder(),
+        Solvers.CornerFlooder(),
+        Solvers.ForwardFlooder(),
+        Solvers.BackwardFlooder(),
+        Solvers.RandomForwardFlooder(),
+        Solvers.RandomBackwardFlooder(),
+        Solvers.ThickestBranchFlooder(),
+        Solvers.ThinnestBranchFlooder(),
+        Solvers.RandomFlooder(),
     };
 
     /**
@@ -81,21 +118,65 @@ class SolverFactory
      */
     public static final String EfficientPrefix = "Efficient";
 
+    /** The Types of MazeSolver strategies that must not be made efficient. */
+    private static Type[] noEfficientSolverTypes = {
+        MasterSolver.class,
+        RandomWalker.class,
+    };
+
+    /**
+     * @param strategyName Name of a Solver Type, optionally with the {@link #EfficientPrefix}.
+     * @return True if the name denotes one of the {@link #getSolverTypes() implemented strategies}.
+     */
+    public static boolean isValidStrategyName(String strategyName)
+    {
+        if (strategyName == null)
+        {
+            return false;
+        }
+        if (strategyName.startsWith(EfficientPrefix))
+        {
+            strategyName = strategyName.substring(EfficientPrefix.length());
+        }
+        return getSolverType(strategyName) != null;
+    }
+
+    /**
+     * @param solverType A specific MazeSolver type.
+     * @return True if a DeadEndChecker may be installed in the given solverType.
+     */
+    public static boolean hasEfficientVariant(Type solverType)
+    {
+        for (Type t : noEfficientSolverTypes)
+        {
+            if (t == solverType)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     //--------------------- Static methods for creating a MazeSolver
 
     /**
      * @param solverType A specific MazeSolver type. 
      * @param maze The problem to be solved.
      * @param mazeDrawer An object that can draw the maze. 
+     * @param independent When true, the solver is {@linkplain IMazeSolver#makeIndependent() independent}.
      * @return A new MazeSolver of the given Type.
      */
-    private static IMazeSolver createSolver(Type solverType, Maze maze, IMazeDrawer mazeDrawer)
+    private static IMazeSolver createSolver(Type solverType, Maze maze, IMazeDrawer mazeDrawer, boolean independent)
     {
         IMazeSolver result;
         
         try
         {
-            result = (IMazeSolver) solverType.getClass().getConstructor(Maze.class, IMazeDrawer.class).newInstance(maze, mazeDrawer);
+            result = (IMazeSolver) ((Class<?>) solverType).getConstructor(Maze.class, IMazeDrawer.class).newInstance(maze, mazeDrawer);
+            if (independent)
+            {
+                result.makeIndependent();
+            }
             result.reset();
         }
         catch (Exception e)
@@ -114,35 +195,60 @@ class SolverFactory
      * @return A new MazeSolver of the given type name.
      */
     public static IMazeSolver createSolver(String strategyName, Maze maze, IMazeDrawer mazeDrawer)
+    {
+        return createSolver(strategyName, maze, mazeDrawer, false);
+    }
+
+    /**
+     * Creates a solver that keeps its visited squares to itself, without a drawer.
+     * Neither this method nor the solver modify the given maze.
+     * Thus, many independent solvers may work on the same maze concurrently.
+     * @param strategyName Name of the Solver Type; null selects a random type.
+     * @param maze The problem to be solved.
+     * @return A new MazeSolver of the given type name.
+     * @see IMazeSolver#makeIndependent()
+     */
+    public static IMazeSolver createIndependentSolver(String strategyName, Maze maze)
+    {
+        return createSolver(strategyName, maze, null, true);
+    }
+
+    /**
+     * If the given strategyName is valid, that type is created; otherwise a random type is returned.
+     * @param strategyName Name of the Solver Type.
+     * @param maze The problem to be solved.
+     * @param mazeDrawer An object that can draw the maze. 
+     * @param independent When true, the solver is {@linkplain IMazeSolver#makeIndependent() independent}.
+     * @return A new MazeSolver of the given type name.
+     */
+    private static IMazeSolver createSolver(String strategyName, Maze maze, IMazeDrawer mazeDrawer, boolean independent)
     {
         IMazeSolver result;
         boolean isEfficient = false;
 
-        /* TODO
         if (strategyName != null)
         {
-            if (strategyName.StartsWith(EfficientPrefix))
+            if (strategyName.startsWith(EfficientPrefix))
             {
-                strategyName = strategyName.Substring(EfficientPrefix.Length);
+                strategyName = strategyName.substring(EfficientPrefix.length());
                 isEfficient = true;
             }
         }
-        */
 
         Type strategy = getSolverType(strategyName);
         if (strategy != null)
         {
             // If strategyName is a valid solver type name:
-            result = createSolver(strategy, maze, mazeDrawer);
-            if (isEfficient)
+            result = createSolver(strategy, maze, mazeDrawer, independent);
+            if (isEfficient && hasEfficientVariant(strategy))
             {
-                // TODO result.MakeEfficient();
+                result.makeEfficient();
             }
         }
         else
         {
             // Otherwise (strategy name is "any"):
-            result = createSolver(maze, mazeDrawer);
+            result = createSolver(maze, mazeDrawer, independent);
         }
 
         return result;
@@ -151,23 +257,22 @@ class SolverFactory
     /**
      * @param maze The problem to be solved.
      * @param mazeDrawer An object that can draw the maze. 
+     * @param independent When true, the solver is {@linkplain IMazeSolver#makeIndependent() independent}.
      * @return A new MazeSolver of a random type.
      */
-    private static IMazeSolver createSolver(Maze maze, IMazeDrawer mazeDrawer)
+    private static IMazeSolver createSolver(Maze maze, IMazeDrawer mazeDrawer, boolean independent)
     {
         while (true)
         {
             Type t = solverTypes[RandomFactory.nextInt(solverTypes.length)];
             boolean shouldBeEfficient = (RandomFactory.nextInt(2) == 0);
-            // TODO: shouldBeEfficient &= RegisteredOptions.GetBoolSetting(RegisteredOptions.OPT_EFFICIENT_SOLVERS);
+            shouldBeEfficient &= RegisteredOptions.GetBoolSetting(RegisteredOptions.OPT_EFFICIENT_SOLVERS);
 
-            /* TODO
             if (t == RandomWalker.class)
             {
                 // too dumb
                 continue;
             }
-            */
 
             if (t == MasterSolver.class)
             {
@@ -175,14 +280,12 @@ class SolverFactory
                 continue;
             }
 
-            IMazeSolver result = createSolver(t, maze, mazeDrawer);
+            IMazeSolver result = createSolver(t, maze, mazeDrawer, independent);
 
-            /* TODO:
-            if (shouldBeEfficient && HasEfficientVariant(t))
+            if (shouldBeEfficient && hasEfficientVariant(t))
             {
-                result.MakeEfficient();
+                result.makeEfficient();
             }
-            */
 
             return result;
         }
@@ -200,6 +303,20 @@ class SolverFactory
         return result;
     }
 
+    /**
+     * Solves the given maze with the given strategy, without drawing.
+     * The maze is {@linkplain Maze#reset() reset} before solving.
+     * @param maze The problem to be solved.
+     * @param strategyName Name of the Solver Type; null selects a random type.
+     * @return The number of steps and the time it took.
+     * @see IMazeSolver#solveAndMeasure()
+     */
+    public static SolverStatistics solveAndMeasure(Maze maze, String strategyName)
+    {
+        maze.reset();
+        return createSolver(strategyName, maze, null).solveAndMeasure();
+    }
+
     //--------------------- Static methods related to the solution
 
     /**
@@ -209,8 +326,7 @@ class SolverFactory
     public static List<MazeSquare> getSolutionPath(Maze maze)
     {
         // Note: This code must not modify the given maze.
-        MasterSolver m = new MasterSolver(maze, null);
-        return m.getPath();
+        return maze.getGrid().getSquares(PathFinder.getSolutionPath(maze));
     }
 
     //--------------------- Auxiliary methods
@@ -223,7 +339,7 @@ class SolverFactory
     {
         for (Type t : solverTypes)
         {
-            if (t.toString().equals(name))
+            if (((Class<?>) t).getSimpleName().equals(name))
             {
                 return t;
             }
@@ -1,10 +1,27 @@
 package swa.ariadne.logic.factory;
 
+import swa.ariadne.logic.BackwardFlooder;
+import swa.ariadne.logic.CenterFlooder;
+import swa.ariadne.logic.CloseFlooder;
+import swa.ariadne.logic.CornerFlooder;
+import swa.ariadne.logic.FarFlooder;
+import swa.ariadne.logic.ForwardFlooder;
+import swa.ariadne.logic.HesitatingFlooder;
 import swa.ariadne.logic.IMazeDrawer;
 import swa.ariadne.logic.IMazeSolver;
+import swa.ariadne.logic.LeftHandWalker;
 import swa.ariadne.logic.MasterSolver;
+import swa.ariadne.logic.OpposedFlooder;
+import swa.ariadne.logic.ProximityFlooder;
 import swa.ariadne.logic.RandomBacktracker;
+import swa.ariadne.logic.RandomBackwardFlooder;
+import swa.ariadne.logic.RandomFlooder;
+import swa.ariadne.logic.RandomForwardFlooder;
+import swa.ariadne.logic.RandomWalker;
+import swa.ariadne.logic.RightHandWalker;
 import swa.ariadne.logic.RoundRobinFlooder;
+import swa.ariadne.logic.ThickestBranchFlooder;
+import swa.ariadne.logic.ThinnestBranchFlooder;
 import swa.ariadne.model.Maze;
 
 /**
@@ -47,6 +64,51 @@ class Solvers
         };
     }
 
+    /**
+     * @return A constructor for a RightHandWalker. 
+     */
+    public static SolverConstructor RightHandWalker()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new RightHandWalker(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a LeftHandWalker. 
+     */
+    public static SolverConstructor LeftHandWalker()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new LeftHandWalker(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a RandomWalker. 
+     */
+    public static SolverConstructor RandomWalker()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new RandomWalker(maze, mazeDrawer);
+            }
+        };
+    }
+
     /**
      * @return A constructor for a RoundRobinFlooder. 
      */
@@ -61,4 +123,214 @@ class Solvers
             }
         };
     }
+
+    /**
+     * @return A constructor for a CloseFlooder. 
+     */
+    public static SolverConstructor CloseFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new CloseFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a FarFlooder. 
+     */
+    public static SolverConstructor FarFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new FarFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a OpposedFlooder. 
+     */
+    public static SolverConstructor OpposedFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new OpposedFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a ProximityFlooder. 
+     */
+    public static SolverConstructor ProximityFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new ProximityFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a HesitatingFlooder. 
+     */
+    public static SolverConstructor HesitatingFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new HesitatingFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a CenterFlooder. 
+     */
+    public static SolverConstructor CenterFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new CenterFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a CornerFlooder. 
+     */
+    public static SolverConstructor CornerFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new CornerFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a ForwardFlooder. 
+     */
+    public static SolverConstructor ForwardFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new ForwardFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a BackwardFlooder. 
+     */
+    public static SolverConstructor BackwardFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new BackwardFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a RandomForwardFlooder. 
+     */
+    public static SolverConstructor RandomForwardFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new RandomForwardFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a RandomBackwardFlooder. 
+     */
+    public static SolverConstructor RandomBackwardFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new RandomBackwardFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a ThickestBranchFlooder. 
+     */
+    public static SolverConstructor ThickestBranchFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new ThickestBranchFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a ThinnestBranchFlooder. 
+     */
+    public static SolverConstructor ThinnestBranchFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new ThinnestBranchFlooder(maze, mazeDrawer);
+            }
+        };
+    }
+
+    /**
+     * @return A constructor for a RandomFlooder. 
+     */
+    public static SolverConstructor RandomFlooder()
+    {
+        return new SolverConstructor(swa.util.Stack.getCallingMethod())
+        {
+            @Override
+            public IMazeSolver createI(Maze maze, IMazeDrawer mazeDrawer)
+            {
+                return new RandomFlooder(maze, mazeDrawer);
+            }
+        };
+    }
 }
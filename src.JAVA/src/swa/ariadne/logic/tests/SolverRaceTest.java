@@ -0,0 +1,76 @@
+package swa.ariadne.logic.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import swa.ariadne.logic.SolverRace;
+import swa.ariadne.logic.SolverStatistics;
+import swa.ariadne.logic.factory.SolverFactory;
+import swa.ariadne.model.Maze;
+
+/**
+ * Test class for swa.ariadne.logic.SolverRace.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class SolverRaceTest
+{
+    /** Deterministic strategies; their step counts do not depend on random numbers. */
+    private static final List<String> strategyNames = Arrays.asList(
+        "RightHandWalker", "LeftHandWalker", "RoundRobinFlooder", "CloseFlooder",
+        "EfficientCloseFlooder", "EfficientLeftHandWalker", "MasterSolver", "CenterFlooder");
+
+    //--------------------- Unit tests for SolverRace
+
+    /**
+     * Test method for {@link SolverRace#run(List)}.
+     * Every solver must take the same steps as when it is solving the maze alone.
+     */
+    @Test
+    public final void SR_testRun_01()
+    {
+        for (int seed = 0; seed < 5; seed++)
+        {
+            Maze maze = createMaze(seed);
+            List<SolverStatistics> leaderboard = new SolverRace(maze).run(strategyNames);
+
+            assertEquals("wrong number of entries", strategyNames.size(), leaderboard.size());
+            assertEquals("maze has been modified", 0, maze.getGrid().countVisited());
+
+            for (int i = 0; i < leaderboard.size(); i++)
+            {
+                SolverStatistics stats = leaderboard.get(i);
+                if (i > 0)
+                {
+                    assertTrue("wrong order", leaderboard.get(i - 1).getSteps() <= stats.getSteps());
+                }
+
+                SolverStatistics expected = SolverFactory.solveAndMeasure(maze, stats.getStrategyName());
+                assertEquals("wrong steps: " + stats.getStrategyName(), expected.getSteps(), stats.getSteps());
+                assertEquals("wrong visited: " + stats.getStrategyName(), expected.getVisitedSquares(), stats.getVisitedSquares());
+                maze.reset();
+            }
+
+            assertEquals("MasterSolver is not the winner", "MasterSolver", leaderboard.get(0).getStrategyName());
+        }
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * @param seed Initialization of the random number generator.
+     * @return A completely built maze.
+     */
+    private static Maze createMaze(int seed)
+    {
+        Maze result = new Maze(40, 30, 1, seed);
+        result.createMaze();
+        result.reset();
+        return result;
+    }
+}
@@ -0,0 +1,677 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+
+/**
+ * Identifies squares of a {@link MazeGrid} that need not be visited because they cannot lead to the target square.
+ * <p>
+ * A "trajectory" is like a path through unvisited squares regardless of closed walls.
+ * If there is no such trajectory (i.e. if every path would have to pass through visited squares),
+ * we may conclude that the square is not reachable and therefore useless.
+ * <p>
+ * The dead squares (visited, reserved or unreachable) are grouped into areas connected by sides or corners;
+ * the border of the grid belongs to a single area, as well.  The areas are kept in a union-find structure.
+ * A visit can only cut off some squares if it closes a ring of dead squares:
+ * two of the dead squares around the visited square must belong to the same area
+ * while they are separated by alive squares in the visited square's neighborhood.
+ * Most visits are recognized as harmless by looking at the eight surrounding squares and their areas alone.
+ * <p>
+ * When a ring is closed, the alive neighbors may have been separated from each other.
+ * Their pieces are explored by concurrent searches that advance in lockstep.
+ * Every piece that is exhausted without containing the target square is killed.
+ * The search ends when a single piece is left.  Thus, no search explores more squares than are killed in all.
+ * <p>
+ * Every square is killed only once.  So a visit takes amortized constant time,
+ * apart from the (nearly constant) cost of the union-find operations.
+ * All state is kept in primitive arrays indexed by the square index of the grid.
+ * After a {@link #reset()}, the checker is in the same state as a new one; no search is repeated.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class DeadEndChecker
+{
+    //--------------------- Constants
+
+    /** The eight surrounding squares, clockwise from north: x offsets. */
+    private static final int[] RingX = { 0, +1, +1, +1, 0, -1, -1, -1 };
+
+    /** The eight surrounding squares, clockwise from north: y offsets. */
+    private static final int[] RingY = { -1, -1, 0, +1, +1, +1, 0, -1 };
+
+    /** Number of squares around a square: {@value}. */
+    private static final int RingSize = 8;
+
+    /** Maximum number of separated neighbors, i.e. of concurrent searches: {@value}. */
+    private static final int MaxSearches = WallPosition.NUM;
+
+    /*
+     * The following tables describe every constellation of dead squares around a square.
+     * A constellation is a bit mask: bit k is set if the k-th square of the ring is dead.
+     */
+
+    /** For every constellation: the number of groups of alive neighbors (and of gaps); see {@link #analyzeRing(int)}. */
+    private static final byte[] GroupCounts = new byte[1 << RingSize];
+
+    /** For every constellation and group: the ring position of the group's first square. */
+    private static final byte[] GroupPositions = new byte[MaxSearches << RingSize];
+
+    /** For every constellation and gap: the ring position of one of the gap's dead squares. */
+    private static final byte[] GapPositions = new byte[MaxSearches << RingSize];
+
+    /** For every constellation: a bit mask of the ring positions where a run of dead squares starts. */
+    private static final byte[] RunStarts = new byte[1 << RingSize];
+
+    static
+    {
+        for (int mask = 0; mask < (1 << RingSize); mask++)
+        {
+            analyzeRing(mask);
+        }
+    }
+
+    //--------------------- Member variables and Properties
+
+    /** Width of the grid. */
+    private final int width;
+
+    /** Height of the grid. */
+    private final int height;
+
+    /** The grid whose squares are checked; used for the maze IDs. */
+    private final MazeGrid grid;
+
+    /** Index of the target square. */
+    private final int targetIndex;
+
+    /** For every square of the {@link #ring}: the difference of its index and the center square's index. */
+    private final int[] ringOffset = new int[RingSize];
+
+    /** An additional square index that stands for everything outside of the grid; it is always dead. */
+    private final int border;
+
+    /** For every square (and the {@link #border}): true if the square is not reachable from the target square. */
+    private final boolean[] dead;
+
+    /** For every dead square (and the {@link #border}): its parent in the union-find structure of dead areas. */
+    private final int[] area;
+
+    /** For every root of the {@link #area} structure: an upper bound of the tree height. */
+    private final byte[] areaRank;
+
+    /** The {@link #dead} flags of a new checker; restored by {@link #reset()}. */
+    private final boolean[] initialDead;
+
+    /** The {@link #area} structure of a new checker; restored by {@link #reset()}. */
+    private final int[] initialArea;
+
+    /** The {@link #areaRank} values of a new checker; restored by {@link #reset()}. */
+    private final byte[] initialAreaRank;
+
+    /** The squares killed by the most recent {@link #visit(int)}. */
+    private final int[] killedSquares;
+
+    //--------------------- Member variables of the separating search
+
+    /** The squares around the most recently inspected square, clockwise from north; may be the {@link #border}. */
+    private final int[] ring = new int[RingSize];
+
+    /** For every square: {@link #stamp} plus the search that has reached it; less than stamp if not reached. */
+    private final int[] searchMark;
+
+    /** Distinguishes the searches of the current visit from those of previous visits. */
+    private int stamp;
+
+    /** For every search: the reached squares; the squares before {@link #searchHead} have been explored. */
+    private final int[][] searchSquares = new int[MaxSearches][];
+
+    /** For every search: the next square to be explored. */
+    private final int[] searchHead = new int[MaxSearches];
+
+    /** For every search: the number of reached squares. */
+    private final int[] searchTail = new int[MaxSearches];
+
+    /** For every search: the search it has been merged into; itself if it has not been merged. */
+    private final int[] searchGroup = new int[MaxSearches];
+
+    /** For every (unmerged) search: true if the target square has been reached. */
+    private final boolean[] searchHasTarget = new boolean[MaxSearches];
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param maze A completely built maze.
+     */
+    public DeadEndChecker(Maze maze)
+    {
+        this.grid = maze.getGrid();
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.targetIndex = maze.getTargetIndex();
+
+        int n = grid.getSquareCount();
+        this.border = n;
+        this.dead = new boolean[n + 1];
+        this.area = new int[n + 1];
+        this.areaRank = new byte[n + 1];
+        this.killedSquares = new int[n];
+        this.searchMark = new int[n];
+
+        for (int s = 0; s < MaxSearches; s++)
+        {
+            searchSquares[s] = new int[16];
+        }
+        for (int k = 0; k < RingSize; k++)
+        {
+            ringOffset[k] = RingY[k] * width + RingX[k];
+        }
+
+        initializeDeadSquares(maze.getStartIndex());
+
+        this.initialDead = dead.clone();
+        this.initialArea = area.clone();
+        this.initialAreaRank = areaRank.clone();
+    }
+
+    /**
+     * Returns to the state of a new checker for the same maze: only the start square has been visited.
+     */
+    public void reset()
+    {
+        System.arraycopy(initialDead, 0, dead, 0, dead.length);
+        System.arraycopy(initialArea, 0, area, 0, area.length);
+        System.arraycopy(initialAreaRank, 0, areaRank, 0, areaRank.length);
+        Arrays.fill(searchMark, 0);
+        stamp = 0;
+    }
+
+    /**
+     * Reserved squares and the start square are treated like visited squares.
+     * Thus, the squares that are cut off by them are killed, as well.
+     * @param startIndex Index of the start square.
+     */
+    private void initializeDeadSquares(int startIndex)
+    {
+        dead[border] = true;
+        area[border] = border;
+
+        for (int i = 0; i < border; i++)
+        {
+            if (grid.getMazeId(i) == MazeSquare.ReservedMazeId)
+            {
+                visit(i);
+            }
+        }
+
+        visit(startIndex);
+    }
+
+    //--------------------- Queries
+
+    /**
+     * A square is dead if
+     * a) it is a reserved area in the maze,
+     * b) it has already been visited or
+     * c) there is no trajectory leading to the maze's target square.
+     * @param index A square index.
+     * @return True if the given square is marked as dead.
+     */
+    public boolean isDead(int index)
+    {
+        return dead[index];
+    }
+
+    /**
+     * @param k A number between 0 and the result of the most recent {@link #visit(int)} (exclusive).
+     * @return The index of the k-th square killed by the most recent visit.
+     */
+    public int getKilledSquare(int k)
+    {
+        return killedSquares[k];
+    }
+
+    //--------------------- Implementation
+
+    /**
+     * Registers the given square as visited.
+     * The squares killed by this visit can be retrieved with {@link #getKilledSquare(int)}.
+     * Only squares with the same maze ID as the visited square are reported.
+     * @param index Index of the visited square.
+     * @return The number of squares that have been identified as dead ends.
+     */
+    public int visit(int index)
+    {
+        // Don't process squares that have been visited before.
+        if (dead[index])
+        {
+            return 0;
+        }
+
+        dead[index] = true;
+        area[index] = index;
+        int mask = setRing(index);
+
+        // The groups of alive neighbors may be separated only if two of the gaps between them belong to the same area.
+        int groupCount = GroupCounts[mask];
+        boolean separated = false;
+
+        for (int g = 1; g < groupCount && !separated; g++)
+        {
+            int root = findArea(ring[GapPositions[mask * MaxSearches + g]]);
+            for (int h = 0; h < g; h++)
+            {
+                if (findArea(ring[GapPositions[mask * MaxSearches + h]]) == root)
+                {
+                    separated = true;
+                    break;
+                }
+            }
+        }
+
+        joinDeadNeighbors(index, mask);
+
+        if (!separated || index == targetIndex)
+        {
+            // If this is the target square, there is no need to kill any more squares...
+            return 0;
+        }
+
+        return killSeparatedPieces(mask, groupCount, grid.getMazeId(index));
+    }
+
+    /**
+     * Fills the tables for the given constellation of dead squares around a square.
+     * <p>
+     * Two alive neighbors (sharing a side with the square) are in the same group
+     * if they are connected by an alive square in the corner between them.
+     * Every gap between two groups consists of dead squares that touch each other.
+     * The number of groups is 0 if the ring has no group or no gap.
+     * <p>
+     * A run is a sequence of dead squares of the ring that touch each other.
+     * @param mask A constellation: bit k is set if the k-th square of the ring is dead.
+     */
+    private static void analyzeRing(int mask)
+    {
+        //--------------------- Runs of dead squares.
+
+        int runStarts = 0;
+        for (int k = 0; k < RingSize; k++)
+        {
+            int previous = (k + RingSize - 1) % RingSize;
+            if ((mask & (1 << k)) != 0 && (mask & (1 << previous)) == 0)
+            {
+                runStarts |= (1 << k);
+            }
+        }
+        if (mask == (1 << RingSize) - 1)
+        {
+            runStarts = 1;
+        }
+        RunStarts[mask] = (byte) runStarts;
+
+        //--------------------- Groups of alive neighbors and gaps.
+
+        // The squares of the ring that connect alive neighbors.
+        int open = 0;
+        for (int k = 0; k < RingSize; k += 2)
+        {
+            if ((mask & (1 << k)) == 0)
+            {
+                open |= (1 << k);
+            }
+        }
+        for (int k = 1; k < RingSize; k += 2)
+        {
+            int k2 = (k + 1) % RingSize;
+            if ((mask & (1 << k)) == 0 && (open & (1 << (k - 1))) != 0 && (open & (1 << k2)) != 0)
+            {
+                open |= (1 << k);
+            }
+        }
+
+        if (mask == 0 || open == 0)
+        {
+            return;
+        }
+
+        // Start at a dead square of the ring.  Then every gap has a dead square where it is entered or later.
+        int k0 = Integer.numberOfTrailingZeros(mask);
+        int count = 0;
+        boolean wasOpen = false, needGapSquare = false;
+
+        for (int step = 1; step <= RingSize; step++)
+        {
+            int k = (k0 + step) % RingSize;
+            boolean isOpen = (open & (1 << k)) != 0;
+
+            if (isOpen && !wasOpen)
+            {
+                // Only a side square can follow a closed square.
+                GroupPositions[mask * MaxSearches + count] = (byte) k;
+            }
+            else if (!isOpen && wasOpen)
+            {
+                ++count;
+                needGapSquare = true;
+            }
+            if (needGapSquare && (mask & (1 << k)) != 0)
+            {
+                GapPositions[mask * MaxSearches + count - 1] = (byte) k;
+                needGapSquare = false;
+            }
+
+            wasOpen = isOpen;
+        }
+
+        GroupCounts[mask] = (byte) count;
+    }
+
+    /**
+     * Explores the pieces around a visited square and kills the ones that have been cut off from the target square.
+     * <p>
+     * Every group of alive neighbors is explored by its own breadth first search; the searches advance in lockstep.
+     * When two searches meet, they are merged.  When a search is exhausted, its piece is complete:
+     * it is killed unless it contains the target square.
+     * The remaining searches stop when a single one is left, which must be the target square's piece.
+     * Thus, the number of explored squares is proportional to the number of killed squares.
+     * @param mask The constellation of dead squares in the {@link #ring} around the visited square.
+     * @param groupCount Number of searches; they start at the groups of alive neighbors.
+     * @param mazeId Only killed squares with this maze ID are reported.
+     * @return The number of reported squares.
+     */
+    private int killSeparatedPieces(int mask, int groupCount, int mazeId)
+    {
+        if (stamp > Integer.MAX_VALUE - 2 * MaxSearches)
+        {
+            Arrays.fill(searchMark, 0);
+            stamp = 0;
+        }
+        stamp += MaxSearches;
+
+        for (int s = 0; s < groupCount; s++)
+        {
+            searchHead[s] = searchTail[s] = 0;
+            searchGroup[s] = s;
+            searchHasTarget[s] = false;
+            reach(s, ring[GroupPositions[mask * MaxSearches + s]]);
+        }
+
+        int result = 0;
+        int active = groupCount;
+        boolean targetExhausted = false;
+
+        while (active > 1 || (targetExhausted && active > 0))
+        {
+            for (int s = 0; s < groupCount; s++)
+            {
+                if (searchHead[s] == searchTail[s])
+                {
+                    continue;
+                }
+
+                // Explore one square: reach its alive neighbors, regardless of walls.
+                int i = searchSquares[s][searchHead[s]++];
+                int x = i % width;
+                active -= (x > 0 ? explore(s, i - 1) : 0);
+                active -= (x < width - 1 ? explore(s, i + 1) : 0);
+                active -= (i >= width ? explore(s, i - width) : 0);
+                active -= (i < border - width ? explore(s, i + width) : 0);
+
+                if (searchHead[s] == searchTail[s] && isExhausted(findSearch(s), groupCount))
+                {
+                    --active;
+                    int g = findSearch(s);
+                    if (searchHasTarget[g])
+                    {
+                        // All other pieces are dead.
+                        targetExhausted = true;
+                    }
+                    else
+                    {
+                        result = killPiece(g, groupCount, mazeId, result);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Lets a search reach the given square.
+     * If another search has already reached it, the two searches are merged.
+     * @param s A search.
+     * @param index A square next to a square explored by the search.
+     * @return The number of merged searches: 1 or 0.
+     */
+    private int explore(int s, int index)
+    {
+        if (dead[index])
+        {
+            return 0;
+        }
+
+        int mark = searchMark[index];
+        if (mark < stamp)
+        {
+            reach(s, index);
+            return 0;
+        }
+        if (mark == stamp + s)
+        {
+            return 0;
+        }
+
+        int g = findSearch(s), h = findSearch(mark - stamp);
+        if (g == h)
+        {
+            return 0;
+        }
+
+        // Both searches are exploring the same piece.
+        searchGroup[h] = g;
+        searchHasTarget[g] |= searchHasTarget[h];
+        return 1;
+    }
+
+    /**
+     * Adds a square to a search.
+     * @param s A search.
+     * @param index An alive square not yet reached by any search.
+     */
+    private void reach(int s, int index)
+    {
+        int[] squares = searchSquares[s];
+        if (searchTail[s] == squares.length)
+        {
+            squares = searchSquares[s] = Arrays.copyOf(squares, 2 * squares.length);
+        }
+
+        squares[searchTail[s]++] = index;
+        searchMark[index] = stamp + s;
+
+        if (index == targetIndex)
+        {
+            searchHasTarget[findSearch(s)] = true;
+        }
+    }
+
+    /**
+     * @param s A search.
+     * @return The search that the given one has been merged into.
+     */
+    private int findSearch(int s)
+    {
+        while (searchGroup[s] != s)
+        {
+            s = searchGroup[s];
+        }
+        return s;
+    }
+
+    /**
+     * @param g An unmerged search.
+     * @param groupCount Number of searches.
+     * @return True if all searches merged into the given one have explored all their squares.
+     */
+    private boolean isExhausted(int g, int groupCount)
+    {
+        for (int s = 0; s < groupCount; s++)
+        {
+            if (searchHead[s] < searchTail[s] && findSearch(s) == g)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kills all squares reached by the given search and the searches merged into it.
+     * @param g An unmerged, exhausted search.
+     * @param groupCount Number of searches.
+     * @param mazeId Only killed squares with this maze ID are reported.
+     * @param count Number of squares reported so far.
+     * @return The new number of reported squares.
+     */
+    private int killPiece(int g, int groupCount, int mazeId, int count)
+    {
+        for (int s = 0; s < groupCount; s++)
+        {
+            if (findSearch(s) != g)
+            {
+                continue;
+            }
+
+            int[] squares = searchSquares[s];
+            for (int p = 0, end = searchTail[s]; p < end; p++)
+            {
+                int i = squares[p];
+                dead[i] = true;
+                area[i] = i;
+                joinDeadNeighbors(i, setRing(i));
+                if (grid.getMazeId(i) == mazeId)
+                {
+                    killedSquares[count++] = i;
+                }
+            }
+        }
+        return count;
+    }
+
+    //--------------------- Dead areas
+
+    /**
+     * Stores the eight squares surrounding the given square in the {@link #ring}.
+     * Squares outside of the grid are represented by the {@link #border}.
+     * @param index A square index.
+     * @return The constellation of dead squares in the ring: bit k is set if the k-th square is dead.
+     */
+    private int setRing(int index)
+    {
+        int x = index % width;
+        boolean inside = (0 < x && x < width - 1 && width <= index && index < border - width);
+        int result = 0;
+
+        for (int k = 0; k < RingSize; k++)
+        {
+            int j;
+            if (inside)
+            {
+                j = index + ringOffset[k];
+            }
+            else
+            {
+                int y = index / width;
+                int x1 = x + RingX[k], y1 = y + RingY[k];
+                j = (0 <= x1 && x1 < width && 0 <= y1 && y1 < height ? y1 * width + x1 : border);
+            }
+
+            ring[k] = j;
+            if (dead[j])
+            {
+                result |= (1 << k);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Joins the area of the given dead square with the areas of all dead squares in the {@link #ring} around it.
+     * <p>
+     * Neighboring squares of the ring touch each other.
+     * As all touching dead squares already share their area, it is sufficient to join one square of every run.
+     * @param index A dead square.
+     * @param mask The constellation of dead squares in the ring.
+     */
+    private void joinDeadNeighbors(int index, int mask)
+    {
+        for (int runs = RunStarts[mask] & 0xFF; runs != 0; runs &= runs - 1)
+        {
+            joinAreas(index, ring[Integer.numberOfTrailingZeros(runs)]);
+        }
+    }
+
+    /**
+     * @param index A dead square or the {@link #border}.
+     * @return The representative square of the area containing the given square.
+     */
+    private int findArea(int index)
+    {
+        while (area[index] != index)
+        {
+            // Path halving.
+            area[index] = area[area[index]];
+            index = area[index];
+        }
+        return index;
+    }
+
+    /**
+     * Joins the areas containing the given squares.
+     * @param a A dead square or the {@link #border}.
+     * @param b A dead square or the {@link #border}.
+     */
+    private void joinAreas(int a, int b)
+    {
+        a = findArea(a);
+        b = findArea(b);
+
+        if (a == b)
+        {
+            return;
+        }
+
+        // Union by rank.
+        if (areaRank[a] < areaRank[b])
+        {
+            area[a] = b;
+        }
+        else
+        {
+            area[b] = a;
+            if (areaRank[a] == areaRank[b])
+            {
+                ++areaRank[a];
+            }
+        }
+    }
+
+    //--------------------- Auxiliary methods
+
+    @Override
+    public String toString()
+    {
+        int n = 0;
+        for (int i = 0; i < border; i++)
+        {
+            if (dead[i])
+            {
+                ++n;
+            }
+        }
+        return "DeadEndChecker[" + width + "x" + height + "] - " + n + " dead squares";
+    }
+}
@@ -0,0 +1,18 @@
+package swa.ariadne.model;
+
+/**
+ * Receives the mazes created by a {@link MazeBatchGenerator}.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public interface IMazeConsumer
+{
+    /**
+     * Will be called once for every generated maze.
+     * <p>
+     * Note: This method is called from the generator's worker threads, in no particular order.
+     * Implementations must be thread-safe.
+     * @param maze A completely built maze.
+     */
+    void accept(Maze maze);
+}
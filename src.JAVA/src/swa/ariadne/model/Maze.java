@@ -6,7 +6,6 @@ import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.Stack;
 
 import swa.ariadne.outlines.IOutlineShape;
 import swa.ariadne.outlines.OutlineShape;
@@ -57,8 +56,14 @@ public class Maze
         return this.size.height;
     }
 
-    /** Two-dimensional grid of MazeSquares, the dimensions are size.width x size.height. */
-    private MazeSquare[][] squares;
+    /** Packed storage of all squares, the dimensions are size.width x size.height. */
+    private MazeGrid grid;
+
+    /** @return Packed storage of all squares of this maze. */
+    public MazeGrid getGrid()
+    {
+        return this.grid;
+    }
 
     /**
      * @param x A valid X coordinate.
@@ -67,7 +72,7 @@ public class Maze
      */
     public MazeSquare getSquare(int x, int y)
     {
-        return this.squares[x][y];
+        return grid.getSquare(grid.getIndex(x, y));
     }
 
     /** Coordinates of the start square. */
@@ -79,13 +84,42 @@ public class Maze
     /** @return The start square. */
     public MazeSquare getStartSquare()
     {
-        return squares[startPoint.x][startPoint.y];
+        return getSquare(startPoint.x, startPoint.y);
+    }
+
+    /** @return The index of the start square in the {@link MazeGrid}. */
+    public int getStartIndex()
+    {
+        return grid.getIndex(startPoint.x, startPoint.y);
     }
 
     /** @return The target square. */
     public MazeSquare getTargetSquare()
     {
-        return squares[targetPoint.x][targetPoint.y];
+        return getSquare(targetPoint.x, targetPoint.y);
+    }
+
+    /** @return The index of the target square in the {@link MazeGrid}. */
+    public int getTargetIndex()
+    {
+        return grid.getIndex(targetPoint.x, targetPoint.y);
+    }
+
+    /** @return The square in the middle of the maze's bounding box. */
+    public MazeSquare getCenterSquare()
+    {
+        Rectangle bbox = this.getBoundingBox();
+        return getSquare(bbox.x + bbox.width / 2, bbox.y + bbox.height / 2);
+    }
+
+    /**
+     * @param sq A square of this maze.
+     * @return The square diametrically opposed to the given square, within the maze's bounding box.
+     */
+    public MazeSquare getOpposedSquare(MazeSquare sq)
+    {
+        Rectangle bbox = this.getBoundingBox();
+        return getSquare(2 * bbox.x + bbox.width - 1 - sq.getXPos(), 2 * bbox.y + bbox.height - 1 - sq.getYPos());
     }
 
     /** Travel direction. */
@@ -126,6 +160,12 @@ public class Maze
         return codeObj.code(this);
     }
 
+    /** @return The version of the maze code: 0 or 1. */
+    public int getCodeVersion()
+    {
+        return codeObj.getCodeVersion();
+    }
+
     /**
      * Usually, the bounding box covers the whole maze area.
      * The bounding box may be smaller for an embedded maze or when there are reserved areas on the border.
@@ -141,7 +181,7 @@ public class Maze
         {
             for (int y = 0; y < size.height; y++)
             {
-                if (squares[x][y].getMazeId() == this.getMazeId())
+                if (grid.getMazeId(grid.getIndex(x, y)) == this.getMazeId())
                 {
                     xMin = Math.min(xMin, x);
                     xMax = Math.max(xMax, x);
@@ -154,12 +194,33 @@ public class Maze
         return new Rectangle(xMin, yMin, xMax - xMin + 1, yMax - yMin + 1);
     }
 
+    /** The spanning tree of this maze; created when it is first requested. */
+    private volatile MazeTreeIndex treeIndex;
+
+    /**
+     * @return The spanning tree of this maze, rooted at the start square.
+     * Call this only after {@link #createMaze()}.
+     */
+    public MazeTreeIndex getTreeIndex()
+    {
+        MazeTreeIndex result = this.treeIndex;
+
+        if (result == null)
+        {
+            // Note: Concurrent callers may create equivalent objects; only one of them is kept.
+            result = new MazeTreeIndex(grid, getStartIndex(), getTargetIndex());
+            this.treeIndex = result;
+        }
+
+        return result;
+    }
+
     /**
      * @return True if the end point has been visited.
      */
     public boolean isSolved()
     {
-        return this.getTargetSquare().isVisited;
+        return grid.isVisited(getTargetIndex());
     }
 
     /**
@@ -179,6 +240,16 @@ public class Maze
         return result;
     }
 
+    /** A MazeBuilder for every thread; its working storage is reused for all mazes built by that thread. */
+    private static final ThreadLocal<MazeBuilder> builders = new ThreadLocal<MazeBuilder>()
+    {
+        @Override
+        protected MazeBuilder initialValue()
+        {
+            return new MazeBuilder();
+        }
+    };
+
     /** Position and dimensions of some reserved areas. */
     private final List<Rectangle> reservedAreas = new ArrayList<Rectangle>();
 
@@ -264,18 +335,8 @@ public class Maze
         }
          */
 
-        clone.createSquares();
-
-        for (int x = 0; x < size.width; x++)
-        {
-            for (int y = 0; y < size.height; y++)
-            {
-                for (WallPosition wp : WallPosition.values())
-                {
-                    clone.squares[x][y].setWall(wp, this.squares[x][y].getWall(wp));
-                }
-            }
-        }
+        clone.grid = new MazeGrid(this.grid);
+        clone.treeIndex = this.treeIndex;
 
         return clone;
     }
@@ -288,7 +349,9 @@ public class Maze
      */
     public void createMaze()
     {
-        // Create all MazeSquare objects.
+        this.treeIndex = null;
+
+        // Create the packed square storage.
         createSquares();
 
         // Fix reserved areas.
@@ -317,175 +380,22 @@ public class Maze
 
     /**
      * Create the grid of MazeSquares.
-     * All squares are connected to their four neighbor squares in the grid.
+     * Neighbor relations are implicit in the grid's square indexes.
      */
     private void createSquares()
     {
-        //--------------------- Create the squares.
-
-        this.squares = new MazeSquare[size.width][size.height];
-        for (int x = 0; x < size.width; x++)
-        {
-            for (int y = 0; y < size.height; y++)
-            {
-                squares[x][y] = new MazeSquare(x, y);
-            }
-        }
-
-        //--------------------- Connect the squares with their neighbors.
-
-        for (int x0 = 0; x0 < size.width; x0++)
-        {
-            for (int y0 = 0, y1 = 1; y1 < size.height; y0++, y1++)
-            {
-                squares[x0][y0].setNeighbor(WallPosition.WP_S, squares[x0][y1]);
-                squares[x0][y1].setNeighbor(WallPosition.WP_N, squares[x0][y0]);
-            }
-        }
-        for (int y0 = 0; y0 < size.height; y0++)
-        {
-            for (int x0 = 0, x1 = 1; x1 < size.width; x0++, x1++)
-            {
-                squares[x0][y0].setNeighbor(WallPosition.WP_E, squares[x1][y0]);
-                squares[x1][y0].setNeighbor(WallPosition.WP_W, squares[x0][y0]);
-            }
-        }
-
-        //---------------------
+        this.grid = new MazeGrid(size.width, size.height);
     }
 
     /**
      * Convert all undecided walls to either closed or open.
      * In the resulting maze, there must be a path from every square to every other square.
      * There must not be any circles, i.e. the maze must have a tree-like structure.
+     * @see MazeBuilder
      */
     private void buildMaze()
     {
-        // We hold a number of active squares in a stack.
-        // Make the initial capacity sufficient to hold all squares.
-        //
-        Stack<MazeSquare> stack = new Stack<MazeSquare>(); //new Stack<MazeSquare>(size.width * size.height);
-
-        List<MazeSquare> outlineSquares = new ArrayList<MazeSquare>();
-        List<WallPosition> outlineWalls = new ArrayList<WallPosition>();
-
-        //--------------------- Start with a single random cell in the stack.
-
-        while (true)
-        {
-            int x = random.nextInt(size.width);
-            int y = random.nextInt(size.height);
-            MazeSquare sq = this.squares[x][y];
-            if (sq.getMazeId() == this.getMazeId())
-            {
-                sq.isConnected = true;
-                stack.push(sq);
-                break;
-            }
-        }
-
-        //--------------------- Extend the maze by visiting the cells next to those in the stack.
-
-        while (stack.size() > 0)
-        {
-            List<WallPosition> unresolvedWalls = new ArrayList<WallPosition>(WallPosition.NUM);
-            MazeSquare sq0 = stack.pop();
-
-            // Collect the unfixed walls of sq0.
-            //
-            for (WallPosition wp : WallPosition.values())
-            {
-                switch (sq0.getWall(wp))
-                {
-                    case WS_MAYBE:
-                        MazeSquare sq = sq0.getNeighbor(wp);
-
-                        if (sq.isConnected || sq.getMazeId() != sq0.getMazeId())
-                        {
-                            sq0.setWall(wp, WallState.WS_CLOSED);
-                            sq.setWall(WallPosition.oppositeWall(wp), WallState.WS_CLOSED);
-                        }
-                        else
-                        {
-                            unresolvedWalls.add(wp);
-                        }
-                        break;
-
-                    case WS_OUTLINE:
-                        outlineSquares.add(sq0);
-                        outlineWalls.add(wp);
-                        break;
-                }
-            }
-
-            // Discard this square if it has no unresolved walls.
-            if (unresolvedWalls.size() == 0)
-            {
-                // Note: This is the only place that may end the loop.
-                // If the stack is empty: Open one outline wall.
-                if (stack.size() == 0)
-                {
-                    while (outlineSquares.size() > 0)
-                    {
-                        // Select a random square with an outline wall.
-                        int p = random.nextInt(outlineSquares.size());
-                        MazeSquare sq = outlineSquares.remove(p);
-                        WallPosition wp = outlineWalls.remove(p);
-
-                        if (sq.getWall(wp) == WallState.WS_OUTLINE)
-                        {
-                            sq.setWall(wp, WallState.WS_MAYBE);
-                            stack.push(sq);
-                            // This square will be used in the next iteration.
-                            break; // from while(outlineSquares)
-                        }
-                    }
-                }
-
-                continue; // no walls to choose from
-            }
-
-            // Add the current cell to the stack.
-            // Note: Do this before replacing unresolvedWalls with preferredWalls.
-            if (unresolvedWalls.size() > 1)
-            {
-                stack.push(sq0);
-            }
-
-            /* TODO
-            // Use only preferred wall positions.
-            if (unresolvedWalls.size() > 1 && irregularMazeShape != null
-                && (random.nextInt(100) < irregularMazeShape.ApplicationPercentage(this.irregularity)))
-            {
-                boolean[] preferredPositions = irregularMazeShape.PreferredDirections(sq0);
-                List<WallPosition> preferredWalls = new ArrayList<WallPosition>(unresolvedWalls.size());
-                for (WallPosition p : unresolvedWalls)
-                {
-                    if (preferredPositions[p.ordinal()])
-                    {
-                        preferredWalls.add(p);
-                    }
-                }
-                if (preferredWalls.size() > 0)
-                {
-                    unresolvedWalls = preferredWalls;
-                }
-            }
-            */
-
-            // Choose one wall.
-            WallPosition wp0 = unresolvedWalls.get(random.nextInt(unresolvedWalls.size()));
-            MazeSquare sq1 = sq0.getNeighbor(wp0);
-
-            // Open the wall.
-            sq0.setWall(wp0, WallState.WS_OPEN);
-            sq1.setWall(WallPosition.oppositeWall(wp0), WallState.WS_OPEN);
-
-            // Add the new cell to the stack.
-            sq1.isConnected = true;
-            stack.push(sq1);
-
-        } // while stack is not empty
+        builders.get().build(this.grid, this.getMazeId(), this.random);
     }
 
     /**
@@ -499,13 +409,15 @@ public class Maze
 
         for (int x = 0; x < getXSize(); x++)
         {
-            this.squares[x][y1].setWall(WallPosition.WP_N, (this.squares[x][y1].getIsReserved() ? open : closed));
-            this.squares[x][y2].setWall(WallPosition.WP_S, (this.squares[x][y2].getIsReserved() ? open : closed));
+            int i1 = grid.getIndex(x, y1), i2 = grid.getIndex(x, y2);
+            grid.setWall(i1, WallPosition.WP_N, (grid.getMazeId(i1) == MazeSquare.ReservedMazeId ? open : closed));
+            grid.setWall(i2, WallPosition.WP_S, (grid.getMazeId(i2) == MazeSquare.ReservedMazeId ? open : closed));
         }
         for (int y = 0; y < getYSize(); y++)
         {
-            this.squares[x1][y].setWall(WallPosition.WP_W, (this.squares[x1][y].getIsReserved() ? open : closed));
-            this.squares[x2][y].setWall(WallPosition.WP_E, (this.squares[x2][y].getIsReserved() ? open : closed));
+            int i1 = grid.getIndex(x1, y), i2 = grid.getIndex(x2, y);
+            grid.setWall(i1, WallPosition.WP_W, (grid.getMazeId(i1) == MazeSquare.ReservedMazeId ? open : closed));
+            grid.setWall(i2, WallPosition.WP_E, (grid.getMazeId(i2) == MazeSquare.ReservedMazeId ? open : closed));
         }
     }
 
@@ -525,7 +437,7 @@ public class Maze
                 {
                     if (shape == null || shape.get(x, y) == true)
                     {
-                        this.squares[x + rect.x][y + rect.y].setIsReserved();
+                        grid.setMazeId(grid.getIndex(x + rect.x, y + rect.y), MazeSquare.ReservedMazeId);
                     }
                 }
             }
@@ -617,8 +529,8 @@ public class Maze
 
             // Verify that the end points are actually part of this maze.
             //
-            reject = (this.getSquare(startPoint.x, startPoint.y).getMazeId() != this.getMazeId()
-                   || this.getSquare(targetPoint.x, targetPoint.y).getMazeId() != this.getMazeId());
+            reject = (grid.getMazeId(getStartIndex()) != this.getMazeId()
+                   || grid.getMazeId(getTargetIndex()) != this.getMazeId());
 
             // Verify that the squares are not aligned against the intended travel direction.
             // This also eliminates two other cases: same square and squares outside the maze.
@@ -631,15 +543,63 @@ public class Maze
             // Prefer real dead ends.
             // Reject an end point with less than three walls (with ratio 90%).
             //
-            if ((this.getSquare(targetPoint.x, targetPoint.y).countClosedWalls() < WallPosition.NUM - 1) && (random.nextInt(100) < 90))
+            if ((grid.countClosedWalls(getTargetIndex()) < WallPosition.NUM - 1) && (random.nextInt(100) < 90))
             {
                 reject = true;
             }
         }
     }
 
+    /**
+     * Install a finished grid instead of building it, e.g. a grid loaded from a {@link MazeArchive}.
+     * This replaces {@link #createMaze()}.
+     * @param grid A grid with the dimensions of this maze.
+     * @param startIndex The index of the start square.
+     * @param targetIndex The index of the target square.
+     * @param direction The travel direction.
+     * @param areas The reserved areas; their squares are already marked in the grid.
+     */
+    void restoreMaze(MazeGrid grid, int startIndex, int targetIndex, WallPosition direction, List<Rectangle> areas)
+    {
+        this.treeIndex = null;
+        this.grid = grid;
+        this.startPoint = new Point(grid.getXPos(startIndex), grid.getYPos(startIndex));
+        this.targetPoint = new Point(grid.getXPos(targetIndex), grid.getYPos(targetIndex));
+        this.direction = direction;
+
+        for (Rectangle rect : areas)
+        {
+            // Note: The actual shapes are not needed; the grid knows the reserved squares.
+            reservedAreas.add(rect);
+            reservedAreaShapes.add(null);
+        }
+    }
+
     //--------------------- Reserved Area Management.
 
+    /**
+     * @return The reserved areas, in the order of their reservation.
+     */
+    List<Rectangle> getReservedAreas()
+    {
+        return reservedAreas;
+    }
+
+    /**
+     * @return True if some reserved area does not cover its whole rectangle.
+     */
+    boolean hasShapedReservedAreas()
+    {
+        for (IOutlineShape shape : reservedAreaShapes)
+        {
+            if (shape != null)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Reserves a rectangular region of the given dimensions at a random location.
      * The area will not touch any other reserved area.
@@ -740,18 +700,24 @@ public class Maze
      */
     public void reset()
     {
-        // clear the visited region
-        for (int x = 0; x < size.width; x++)
-        {
-            for (int y = 0; y < size.height; y++)
-            {
-                squares[x][y].isVisited = false;
-            }
-        }
+        // clear the visited region (in constant time)
+        grid.clearVisited();
     }
 
     //--------------------- Auxiliary Methods.
 
+    /**
+     * @param sq1 A square.
+     * @param sq2 Another square.
+     * @return The (euclidian) distance between the two squares.
+     */
+    public static double distance(MazeSquare sq1, MazeSquare sq2)
+    {
+        double dx = sq1.getXPos() - sq2.getXPos();
+        double dy = sq1.getYPos() - sq2.getYPos();
+        return Math.sqrt((dx * dx) + (dy * dy));
+    }
+
     /** @return A string representation. */
     @Override
     public String toString()
@@ -0,0 +1,250 @@
+package swa.ariadne.model;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A file holding any number of finished {@link Maze Mazes}.
+ * <p>
+ * Unlike the {@link MazeCode}, which only lets a maze be rebuilt from scratch,
+ * the archive stores the result of {@link Maze#createMaze()}:
+ * the walls of every square (two bits per wall), the reserved squares and the end points.
+ * An archive is mapped into memory as a whole; loading a maze copies its grid without any parsing.
+ * <p>
+ * File layout (all numbers are big endian):
+ * <pre>
+ *   int      Magic
+ *   int      FormatVersion
+ *   int      n: number of mazes
+ *   long[n]  position of every maze record in the file
+ *
+ * Maze record:
+ *   int      code version, seed, xSize, ySize
+ *   int      start index, target index, direction
+ *   int      m: number of reserved areas
+ *   int[4*m] x, y, width, height of every reserved area
+ *   byte[xSize*ySize]  walls of every square, see {@link MazeGrid}
+ *   byte[xSize*ySize]  maze ID of every square
+ * </pre>
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class MazeArchive
+{
+    //--------------------- Constants
+
+    /** The first four bytes of an archive: "AMZA". */
+    private static final int Magic = 0x414D5A41;
+
+    /** Version of the file layout. */
+    private static final int FormatVersion = 1;
+
+    /** Size of the archive header, without the record positions. */
+    private static final int HeaderBytes = 3 * 4;
+
+    /** Size of a maze record, without the reserved areas and squares. */
+    private static final int RecordHeaderBytes = 8 * 4;
+
+    //--------------------- Member variables and Properties
+
+    /** The whole archive file. */
+    private final ByteBuffer buffer;
+
+    /** Number of mazes in the archive. */
+    private final int size;
+
+    /** @return Number of mazes in the archive. */
+    public int size()
+    {
+        return size;
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Private Constructor.
+     * @param buffer The whole archive file.
+     * @param size Number of mazes in the archive.
+     */
+    private MazeArchive(ByteBuffer buffer, int size)
+    {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Maps an archive file into memory.
+     * The file must not be modified while the archive is in use.
+     * @param file An archive file, written by {@link #write(File, List)}.
+     * @return The archive.
+     * @throws IOException When the file cannot be read or is not an archive.
+     */
+    public static MazeArchive open(File file) throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            // Note: The mapping remains valid after the channel has been closed.
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.limit() < HeaderBytes || buffer.getInt(0) != Magic || buffer.getInt(4) != FormatVersion)
+            {
+                throw new IOException("not a maze archive: " + file);
+            }
+
+            int size = buffer.getInt(8);
+            if (size < 0 || HeaderBytes + 8L * size > buffer.limit())
+            {
+                throw new IOException("corrupt maze archive: " + file);
+            }
+
+            return new MazeArchive(buffer, size);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    //--------------------- Loading
+
+    /**
+     * Creates a maze with the contents of an archive record.
+     * The result is equivalent to the original maze after {@link Maze#createMaze()}.
+     * This method may be called concurrently.
+     * @param k A maze, between 0 and {@link #size()} (exclusive).
+     * @return A new Maze.
+     */
+    public Maze getMaze(int k)
+    {
+        if (!(0 <= k && k < size))
+        {
+            throw new IndexOutOfBoundsException("maze " + k + " of " + size);
+        }
+
+        // Every caller has its own position.
+        ByteBuffer src = buffer.duplicate();
+        src.position((int) buffer.getLong(HeaderBytes + 8 * k));
+
+        int codeVersion = src.getInt();
+        int seed = src.getInt();
+        int xSize = src.getInt();
+        int ySize = src.getInt();
+        int startIndex = src.getInt();
+        int targetIndex = src.getInt();
+        WallPosition direction = WallPosition.values()[src.getInt()];
+
+        List<Rectangle> areas = new ArrayList<Rectangle>();
+        for (int m = src.getInt(); m > 0; m--)
+        {
+            areas.add(new Rectangle(src.getInt(), src.getInt(), src.getInt(), src.getInt()));
+        }
+
+        Maze result = new Maze(xSize, ySize, codeVersion, seed);
+        MazeGrid grid = new MazeGrid(xSize, ySize);
+        grid.readFrom(src);
+        result.restoreMaze(grid, startIndex, targetIndex, direction, areas);
+
+        return result;
+    }
+
+    //--------------------- Writing
+
+    /**
+     * Writes an archive file.
+     * @param file The file; an existing file is replaced.
+     * @param mazes Completely built mazes.
+     * @throws IOException When the file cannot be written.
+     */
+    public static void write(File file, List<Maze> mazes) throws IOException
+    {
+        long[] positions = new long[mazes.size()];
+        long length = HeaderBytes + 8L * mazes.size();
+
+        for (int k = 0; k < positions.length; k++)
+        {
+            positions[k] = length;
+            length += getRecordBytes(mazes.get(k));
+        }
+
+        if (length > Integer.MAX_VALUE)
+        {
+            throw new IOException("maze archive is too large: " + length + " bytes");
+        }
+
+        ByteBuffer dst = ByteBuffer.allocate((int) length);
+        dst.putInt(Magic);
+        dst.putInt(FormatVersion);
+        dst.putInt(mazes.size());
+        for (long p : positions)
+        {
+            dst.putLong(p);
+        }
+        for (Maze maze : mazes)
+        {
+            writeRecord(dst, maze);
+        }
+        dst.flip();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try
+        {
+            FileChannel channel = raf.getChannel();
+            channel.truncate(0);
+            while (dst.hasRemaining())
+            {
+                channel.write(dst);
+            }
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * @param maze A completely built maze.
+     * @return Number of bytes of the maze's record.
+     */
+    private static long getRecordBytes(Maze maze)
+    {
+        return RecordHeaderBytes + 4 * 4 * maze.getReservedAreas().size() + maze.getGrid().getByteCount();
+    }
+
+    /**
+     * Writes the record of a maze.
+     * @param dst Receives the record.
+     * @param maze A completely built maze.
+     */
+    private static void writeRecord(ByteBuffer dst, Maze maze)
+    {
+        List<Rectangle> areas = maze.getReservedAreas();
+
+        dst.putInt(maze.getCodeVersion());
+        dst.putInt(maze.getSeed());
+        dst.putInt(maze.getXSize());
+        dst.putInt(maze.getYSize());
+        dst.putInt(maze.getStartIndex());
+        dst.putInt(maze.getTargetIndex());
+        dst.putInt(maze.getDirection().ordinal());
+
+        dst.putInt(areas.size());
+        for (Rectangle rect : areas)
+        {
+            dst.putInt(rect.x);
+            dst.putInt(rect.y);
+            dst.putInt(rect.width);
+            dst.putInt(rect.height);
+        }
+
+        maze.getGrid().writeTo(dst);
+    }
+}
@@ -0,0 +1,233 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Creates many {@link Maze Mazes} of the same dimensions in parallel.
+ * <p>
+ * Every maze is built from its own seed, and the random numbers of a maze depend only on that seed.
+ * Therefore, the generated mazes (and their codes) do not depend on the number of threads
+ * or the order in which the tasks are executed.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class MazeBatchGenerator
+{
+    //--------------------- Constants
+
+    /** A task with no more than this number of mazes is executed without further splitting. */
+    private static final int SequentialThreshold = 1;
+
+    //--------------------- Member variables and Properties
+
+    /** Width of the generated mazes. */
+    private final int width;
+
+    /** Height of the generated mazes. */
+    private final int height;
+
+    /** Maze code version: 0 or 1. */
+    private final int codeVersion;
+
+    /** The pool executing the generator tasks. */
+    private final ForkJoinPool pool;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * The mazes are created in the common fork-join pool.
+     * @param width Width of the mazes.
+     * @param height Height of the mazes.
+     * @param codeVersion 0 or 1.
+     */
+    public MazeBatchGenerator(int width, int height, int codeVersion)
+    {
+        this(width, height, codeVersion, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     * @param width Width of the mazes.
+     * @param height Height of the mazes.
+     * @param codeVersion 0 or 1.
+     * @param pool The pool executing the generator tasks.
+     */
+    public MazeBatchGenerator(int width, int height, int codeVersion, ForkJoinPool pool)
+    {
+        this.width = width;
+        this.height = height;
+        this.codeVersion = codeVersion;
+        this.pool = pool;
+    }
+
+    //--------------------- Seeds
+
+    /**
+     * @param firstSeed The first seed.
+     * @param count Number of seeds.
+     * @return The consecutive seeds firstSeed, firstSeed + 1, ...
+     */
+    public static int[] consecutiveSeeds(int firstSeed, int count)
+    {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            result[i] = firstSeed + i;
+        }
+        return result;
+    }
+
+    /**
+     * The seeds are derived from the master seed before any maze is created.
+     * Thus, the same master seed always produces the same sequence of mazes.
+     * @param masterSeed Initialization of the seed sequence.
+     * @param count Number of seeds.
+     * @return A sequence of pseudo-random seeds, all valid for this generator's code version.
+     */
+    public int[] randomSeeds(long masterSeed, int count)
+    {
+        SplittableRandom r = new SplittableRandom(masterSeed);
+        int seedLimit = MazeCode.getInstance(codeVersion).getSeedLimit();
+
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            result[i] = r.nextInt(seedLimit);
+        }
+        return result;
+    }
+
+    //--------------------- Generating Mazes
+
+    /**
+     * @param seed Initialization of the maze's random number generator.
+     * @return A completely built maze.
+     */
+    public Maze create(int seed)
+    {
+        Maze result = new Maze(width, height, codeVersion, seed);
+        result.createMaze();
+        return result;
+    }
+
+    /**
+     * Creates one maze for every seed and waits until all of them are built.
+     * @param seeds The maze seeds.
+     * @return The generated mazes, in the order of the given seeds.
+     */
+    public List<Maze> generate(int[] seeds)
+    {
+        final Maze[] result = new Maze[seeds.length];
+
+        pool.invoke(new GeneratorTask(seeds, 0, seeds.length, result, null));
+
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Creates one maze for every seed and passes it to the given consumer as soon as it is built.
+     * Returns when all mazes have been consumed.
+     * @param seeds The maze seeds.
+     * @param consumer Receives the mazes, in no particular order.
+     */
+    public void generate(int[] seeds, IMazeConsumer consumer)
+    {
+        pool.invoke(new GeneratorTask(seeds, 0, seeds.length, null, consumer));
+    }
+
+    /**
+     * Note: The mazes are created by the terminal operation of the stream,
+     * in the fork-join pool of the calling thread (usually the common pool).
+     * @param seeds The maze seeds.
+     * @return A parallel stream of the mazes, in the order of the given seeds.
+     */
+    public Stream<Maze> stream(int[] seeds)
+    {
+        return Arrays.stream(seeds).parallel().mapToObj(new IntFunction<Maze>()
+        {
+            @Override
+            public Maze apply(int seed)
+            {
+                return create(seed);
+            }
+        });
+    }
+
+    //--------------------- Types
+
+    /**
+     * Creates the mazes of a range of seeds, splitting the range until it is small enough.
+     */
+    private final class GeneratorTask
+    extends RecursiveAction
+    {
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** All seeds. */
+        private final int[] seeds;
+
+        /** First seed index of this task (inclusive). */
+        private final int from;
+
+        /** Last seed index of this task (exclusive). */
+        private final int to;
+
+        /** Receives the maze of seeds[i] at index i -- or null. */
+        private final Maze[] result;
+
+        /** Receives the mazes -- or null. */
+        private final IMazeConsumer consumer;
+
+        /**
+         * Constructor.
+         * @param seeds All seeds.
+         * @param from First seed index of this task (inclusive).
+         * @param to Last seed index of this task (exclusive).
+         * @param result Receives the maze of seeds[i] at index i -- or null.
+         * @param consumer Receives the mazes -- or null.
+         */
+        GeneratorTask(int[] seeds, int from, int to, Maze[] result, IMazeConsumer consumer)
+        {
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= SequentialThreshold)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    Maze maze = create(seeds[i]);
+                    if (result != null)
+                    {
+                        result[i] = maze;
+                    }
+                    if (consumer != null)
+                    {
+                        consumer.accept(maze);
+                    }
+                }
+            }
+            else
+            {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GeneratorTask(seeds, from, mid, result, consumer),
+                          new GeneratorTask(seeds, mid, to, result, consumer));
+            }
+        }
+    }
+}
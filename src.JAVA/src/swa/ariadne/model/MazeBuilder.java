@@ -0,0 +1,266 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Converts the undecided walls of a {@link MazeGrid} into a tree-like maze.
+ * <p>
+ * All working storage is allocated once per grid size and reused for every maze:
+ * the active squares are held in an int stack of square indexes,
+ * the unresolved walls of the current square in a fixed direction buffer
+ * and the outline walls in a list of encoded (index, WallPosition) pairs.
+ * <p>
+ * The sequence of calls to the Random is the same as that of the original implementation
+ * based on a <code>java.util.Stack</code> of MazeSquares.
+ * Therefore, a given seed produces exactly the same maze, and maze codes remain valid.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+final
+class MazeBuilder
+{
+    //--------------------- Constants
+
+    /** All WallPosition values, indexed by their ordinal. */
+    private static final WallPosition[] wallPositions = WallPosition.values();
+
+    /** For every WallPosition ordinal: the opposite WallPosition. */
+    private static final WallPosition[] oppositeWalls = new WallPosition[WallPosition.NUM];
+
+    static
+    {
+        for (WallPosition wp : wallPositions)
+        {
+            oppositeWalls[wp.ordinal()] = WallPosition.oppositeWall(wp);
+        }
+    }
+
+    /** Initial capacity of the outline wall list. */
+    private static final int InitialOutlineCapacity = 64;
+
+    //--------------------- Member variables and Properties
+
+    /** The grid that is being built. */
+    private MazeGrid grid;
+
+    /** Square indexes of the active squares; the top element is at stack[stackSize - 1]. */
+    private int[] stack = new int[0];
+
+    /** Number of elements in the stack. */
+    private int stackSize;
+
+    /** The unresolved walls of the current square. */
+    private final WallPosition[] unresolvedWalls = new WallPosition[WallPosition.NUM];
+
+    /** Outline walls, encoded as <code>index * WallPosition.NUM + ordinal</code>, in insertion order. */
+    private int[] outlineWalls = new int[InitialOutlineCapacity];
+
+    /** Number of elements in the outline wall list. */
+    private int outlineSize;
+
+    //--------------------- Building a Maze.
+
+    /**
+     * Convert all undecided walls to either closed or open.
+     * In the resulting maze, there must be a path from every square to every other square.
+     * There must not be any circles, i.e. the maze must have a tree-like structure.
+     * @param grid The grid with fixed border walls and maze IDs.
+     * @param mazeId The ID of the squares that belong to the maze.
+     * @param random The source of random numbers.
+     */
+    void build(MazeGrid grid, int mazeId, Random random)
+    {
+        prepare(grid);
+
+        try
+        {
+            buildMaze(mazeId, random);
+        }
+        finally
+        {
+            this.grid = null;
+        }
+    }
+
+    /**
+     * Make the working storage sufficient for the given grid.
+     * @param grid The grid that is going to be built.
+     */
+    private void prepare(MazeGrid grid)
+    {
+        this.grid = grid;
+
+        // Every iteration adds at most one element to the stack (see below).
+        int capacity = grid.getSquareCount() + 1;
+        if (stack.length < capacity)
+        {
+            stack = new int[capacity];
+        }
+
+        this.stackSize = 0;
+        this.outlineSize = 0;
+    }
+
+    /**
+     * @param mazeId The ID of the squares that belong to the maze.
+     * @param random The source of random numbers.
+     */
+    private void buildMaze(int mazeId, Random random)
+    {
+        final int width = grid.getWidth(), height = grid.getHeight();
+
+        //--------------------- Start with a single random cell in the stack.
+
+        while (true)
+        {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int i = grid.getIndex(x, y);
+            if (grid.getMazeId(i) == mazeId)
+            {
+                grid.setConnected(i);
+                stack[stackSize++] = i;
+                break;
+            }
+        }
+
+        //--------------------- Extend the maze by visiting the cells next to those in the stack.
+
+        // Note: A popped square is pushed again together with at most one new square.
+        // As every square is connected only once, the stack never holds more than n + 1 elements.
+        while (stackSize > 0)
+        {
+            int i0 = stack[--stackSize];
+            int unresolvedCount = 0;
+
+            // Collect the unfixed walls of i0.
+            //
+            for (WallPosition wp : wallPositions)
+            {
+                switch (grid.getWall(i0, wp))
+                {
+                    case WS_MAYBE:
+                        int i = grid.getNeighborIndex(i0, wp);
+
+                        if (grid.isConnected(i) || grid.getMazeId(i) != grid.getMazeId(i0))
+                        {
+                            grid.setWall(i0, wp, WallState.WS_CLOSED);
+                            grid.setWall(i, oppositeWalls[wp.ordinal()], WallState.WS_CLOSED);
+                        }
+                        else
+                        {
+                            unresolvedWalls[unresolvedCount++] = wp;
+                        }
+                        break;
+
+                    case WS_OUTLINE:
+                        addOutlineWall(i0, wp);
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+
+            // Discard this square if it has no unresolved walls.
+            if (unresolvedCount == 0)
+            {
+                // Note: This is the only place that may end the loop.
+                // If the stack is empty: Open one outline wall.
+                if (stackSize == 0)
+                {
+                    openOutlineWall(random);
+                }
+
+                continue; // no walls to choose from
+            }
+
+            // Add the current cell to the stack.
+            if (unresolvedCount > 1)
+            {
+                stack[stackSize++] = i0;
+            }
+
+            /* TODO: Port the irregular maze shapes and pass them to build().
+            // Use only preferred wall positions.
+            // Compact the direction buffer in place; its order is preserved.
+            if (unresolvedCount > 1 && irregularMazeShape != null
+                && (random.nextInt(100) < irregularMazeShape.ApplicationPercentage(irregularity)))
+            {
+                boolean[] preferredPositions = irregularMazeShape.PreferredDirections(i0);
+                int preferredCount = 0;
+                for (int k = 0; k < unresolvedCount; k++)
+                {
+                    if (preferredPositions[unresolvedWalls[k].ordinal()])
+                    {
+                        unresolvedWalls[preferredCount++] = unresolvedWalls[k];
+                    }
+                }
+                if (preferredCount > 0)
+                {
+                    unresolvedCount = preferredCount;
+                }
+            }
+            */
+
+            // Choose one wall.
+            WallPosition wp0 = unresolvedWalls[random.nextInt(unresolvedCount)];
+            int i1 = grid.getNeighborIndex(i0, wp0);
+
+            // Open the wall.
+            grid.setWall(i0, wp0, WallState.WS_OPEN);
+            grid.setWall(i1, oppositeWalls[wp0.ordinal()], WallState.WS_OPEN);
+
+            // Add the new cell to the stack.
+            grid.setConnected(i1);
+            stack[stackSize++] = i1;
+
+        } // while stack is not empty
+    }
+
+    //--------------------- Outline walls.
+
+    /**
+     * Appends an outline wall to the end of the list.
+     * @param index A square index.
+     * @param wp The position of an outline wall of that square.
+     */
+    private void addOutlineWall(int index, WallPosition wp)
+    {
+        if (outlineSize == outlineWalls.length)
+        {
+            outlineWalls = Arrays.copyOf(outlineWalls, 2 * outlineSize);
+        }
+        outlineWalls[outlineSize++] = index * WallPosition.NUM + wp.ordinal();
+    }
+
+    /**
+     * Removes random entries from the outline wall list until an entry is found that is still an outline wall.
+     * That wall is made undecided and its square is pushed onto the stack.
+     * @param random The source of random numbers.
+     */
+    private void openOutlineWall(Random random)
+    {
+        while (outlineSize > 0)
+        {
+            // Select a random square with an outline wall.
+            // Note: The remaining entries keep their order, as in the original list based implementation.
+            int p = random.nextInt(outlineSize);
+            int code = outlineWalls[p];
+            System.arraycopy(outlineWalls, p + 1, outlineWalls, p, outlineSize - p - 1);
+            --outlineSize;
+
+            int i = code / WallPosition.NUM;
+            WallPosition wp = wallPositions[code % WallPosition.NUM];
+
+            if (grid.getWall(i, wp) == WallState.WS_OUTLINE)
+            {
+                grid.setWall(i, wp, WallState.WS_MAYBE);
+                stack[stackSize++] = i;
+                // This square will be used in the next iteration.
+                break;
+            }
+        }
+    }
+}
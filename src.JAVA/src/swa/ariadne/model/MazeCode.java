@@ -1,5 +1,7 @@
 package swa.ariadne.model;
 
+import java.util.Arrays;
+
 /**
  * This class is used to encode/decode the characteristic {@link Maze} parameters
  * in a short identifying string.
@@ -75,6 +77,26 @@ public class MazeCode
     {
         return this._codeVersion;
     }
+
+    /**
+     * Number of significant characters between two separators.
+     */
+    private int _groupLength = 4;
+
+    /**
+     * The character of every digit value.
+     */
+    private char[] _digits;
+
+    /**
+     * The digit value of every character below 128; -1 if it is not a code character.
+     */
+    private final byte[] _digitValues = new byte[128];
+
+    /**
+     * All valid numeric codes are below this limit; 0 until it has been calculated.
+     */
+    private volatile long _numberLimit = 0;
     
     /**
      * Private Constructor.
@@ -90,13 +112,38 @@ public class MazeCode
                 this._codeLength = 12;
                 this._codeDigitRange = 26; // 'A' .. 'Z'
                 this._seedLimit = 8 * 1024;
+                this._groupLength = 4;
+                this._digits = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
                 break;
             case 1:
                 this._codeLength = 6;
                 this._codeDigitRange = 36; // '0' .. '9', 'a' .. 'z'
                 this._seedLimit = 16 * 1024;
+                this._groupLength = 3;
+                this._digits = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
                 break;
         }
+
+        Arrays.fill(_digitValues, (byte) -1);
+        for (int digit = 0; digit < _codeDigitRange; digit++)
+        {
+            _digitValues[_digits[digit]] = (byte) digit;
+        }
+    }
+
+    /**
+     * @return The limit of valid numeric codes.
+     * It is calculated on first use, as it requires the MazeDimensions, which in turn require this object.
+     */
+    private long getNumberLimit()
+    {
+        if (_numberLimit == 0)
+        {
+            MazeDimensions dimensionsObj = MazeDimensions.getInstance(_codeVersion);
+            int endPointsRange = (_codeVersion == 0 ? getEndPointsRange(dimensionsObj) : 1);
+            _numberLimit = toNumber(_seedLimit - 1, dimensionsObj.getMaxXSize(), dimensionsObj.getMaxYSize(), endPointsRange - 1) + 1;
+        }
+        return _numberLimit;
     }
     
     /**
@@ -107,7 +154,7 @@ public class MazeCode
      */
     public String code(Maze maze)
     {
-        long nCode = 0;
+        int endPoints = 0;
         MazeDimensions dimensionsObj = MazeDimensions.getInstance(_codeVersion);
 
         //#region Encode the relevant parameters into a numeric code
@@ -157,82 +204,34 @@ public class MazeCode
                     break;
             }
 
-            nCode *= (MazeDimensions.MaxBorderDistance + 1);
-            nCode += d1;
+            endPoints = d1;
 
-            nCode *= (MazeDimensions.MaxBorderDistance + 1);
-            nCode += d2;
+            endPoints *= (MazeDimensions.MaxBorderDistance + 1);
+            endPoints += d2;
 
-            nCode *= (dimensionsObj.getMaxXSize() + 1);
-            nCode += c1;
+            endPoints *= (dimensionsObj.getMaxXSize() + 1);
+            endPoints += c1;
 
-            nCode *= (dimensionsObj.getMaxXSize() + 1);
-            nCode += c2;
+            endPoints *= (dimensionsObj.getMaxXSize() + 1);
+            endPoints += c2;
 
-            nCode *= WallPosition.NUM;
-            nCode += maze.getDirection().ordinal();
+            endPoints *= WallPosition.NUM;
+            endPoints += maze.getDirection().ordinal();
         }
 
-        // Encode maze dimension.
-
-        nCode *= (dimensionsObj.getMaxYSize() - dimensionsObj.getMinSize() + 1);
-        nCode += (maze.getYSize() - dimensionsObj.getMinSize());
+        // Encode maze dimension and initial seed.
 
-        nCode *= (dimensionsObj.getMaxXSize() - dimensionsObj.getMinSize() + 1);
-        nCode += (maze.getXSize() - dimensionsObj.getMinSize());
-
-        // Encode initial seed.
-
-        nCode *= getSeedLimit();
-        nCode += maze.getSeed();
+        long nCode = toNumber(maze.getSeed(), maze.getXSize(), maze.getYSize(), endPoints);
 
         //#endregion
 
         // v0: The resulting nCode is less than 26^12.  See swa.ariadne.model.tests unit tests.
         // v1: The resulting nCode is less than 36^6.  See swa.ariadne.model.tests unit tests.
 
-        //#region Convert the numeric code into a character code (base 26)
-
-        StringBuilder result = new StringBuilder(7);
+        char[] result = new char[getFormattedLength()];
+        format(nCode, result, 0);
 
-        for (int p = _codeLength; p-- > 0; )
-        {
-            int digit = (int)(nCode % _codeDigitRange);
-            nCode /= _codeDigitRange;
-            char c = '?';
-            switch (_codeDigitRange)
-            {
-                case 26:
-                    c = (char)(digit + 'A');
-                    break;
-                case 36:
-                    if (digit < 10)
-                    {
-                        c = (char)(digit + '0');
-                    }
-                    else
-                    {
-                        c = (char)(digit - 10 + 'a');
-                    }
-                    break;
-            }
-            result.insert(0, c);
-        }
-
-        switch (_codeLength)
-        {
-            case 12:
-                result.insert(8, '.');
-                result.insert(4, '.');
-                break;
-            case 6:
-                result.insert(3, '.');
-                break;
-        }
-
-        //#endregion
-
-        return result.toString();
+        return new String(result);
     }
     
     /**
@@ -272,7 +271,8 @@ public class MazeCode
     /**
      * Output parameters of the decode() method.
      */
-    private class DecodeOutput {
+    public static final class DecodeOutput
+    {
         /** DecodeParameter.java */
         public int seed;
 
@@ -303,7 +303,7 @@ public class MazeCode
 
         //#region Convert the character code (base 26) into a numeric code
 
-        char[] a = code.replaceAll(".", "").toCharArray();
+        char[] a = code.replace(".", "").toCharArray();
 
         if (!(a.length == _codeLength))
         {
@@ -448,6 +448,132 @@ public class MazeCode
         //#endregion
     }
 
+    /**
+     * Quickly checks whether the given string is a valid code of this version.
+     * Unlike {@link #decode(String, DecodeOutput)}, an invalid code is rejected without throwing an exception.
+     * @param code A maze code string.
+     * @return True if the code can be decoded.
+     */
+    public boolean isValid(CharSequence code)
+    {
+        return toNumber(code) >= 0;
+    }
+
+    //--------------------- Numeric codes
+
+    // These methods let bulk operations like MazeCodeBatch work without allocating any objects.
+
+    /**
+     * @param dimensionsObj The dimensions of version 0.
+     * @return Number of different start and end point combinations of a version 0 code.
+     */
+    private static int getEndPointsRange(MazeDimensions dimensionsObj)
+    {
+        int result = 1;
+        result *= (MazeDimensions.MaxBorderDistance + 1);
+        result *= (MazeDimensions.MaxBorderDistance + 1);
+        result *= (dimensionsObj.getMaxXSize() + 1);
+        result *= (dimensionsObj.getMaxXSize() + 1);
+        result *= WallPosition.NUM;
+        return result;
+    }
+
+    /**
+     * Combine the maze parameters into a numeric code.
+     * The parameters are not validated.
+     * @param seed The initial seed.
+     * @param xSize Width of the maze.
+     * @param ySize Height of the maze.
+     * @param endPoints v0: The encoded start and end points; v1: 0.
+     * @return The numeric code.
+     */
+    long toNumber(int seed, int xSize, int ySize, int endPoints)
+    {
+        MazeDimensions dimensionsObj = MazeDimensions.getInstance(_codeVersion);
+        long nCode = endPoints;
+
+        nCode *= (dimensionsObj.getMaxYSize() - dimensionsObj.getMinSize() + 1);
+        nCode += (ySize - dimensionsObj.getMinSize());
+
+        nCode *= (dimensionsObj.getMaxXSize() - dimensionsObj.getMinSize() + 1);
+        nCode += (xSize - dimensionsObj.getMinSize());
+
+        nCode *= _seedLimit;
+        nCode += seed;
+
+        return nCode;
+    }
+
+    /**
+     * Convert a code string into a numeric code.
+     * Separator characters are ignored.
+     * @param code A maze code string.
+     * @return The numeric code; -1 if the string is not a valid code of this version.
+     */
+    long toNumber(CharSequence code)
+    {
+        long nCode = 0;
+        int nDigits = 0;
+
+        for (int p = 0, n = code.length(); p < n; p++)
+        {
+            char c = code.charAt(p);
+            if (c == '.')
+            {
+                continue;
+            }
+
+            int digit = (c < _digitValues.length ? _digitValues[c] : -1);
+            if (digit < 0 || ++nDigits > _codeLength)
+            {
+                return -1;
+            }
+
+            nCode *= _codeDigitRange;
+            nCode += digit;
+        }
+
+        if (nDigits < _codeLength || nCode >= getNumberLimit())
+        {
+            return -1;
+        }
+
+        return nCode;
+    }
+
+    /**
+     * @return Number of characters of a code string, including separators.
+     */
+    public int getFormattedLength()
+    {
+        return _codeLength + (_codeLength - 1) / _groupLength;
+    }
+
+    /**
+     * Convert a numeric code into a code string.
+     * @param nCode A numeric code.
+     * @param dst Receives {@link #getFormattedLength()} characters.
+     * @param offset Position of the first character in dst.
+     * @return Position following the last character in dst.
+     */
+    int format(long nCode, char[] dst, int offset)
+    {
+        int end = offset + getFormattedLength();
+
+        for (int p = _codeLength, q = end; p-- > 0; )
+        {
+            dst[--q] = _digits[(int)(nCode % _codeDigitRange)];
+            nCode /= _codeDigitRange;
+
+            if (p > 0 && p % _groupLength == 0)
+            {
+                dst[--q] = '.';
+            }
+        }
+
+        return end;
+    }
+
     /**
      * Verify the validity of the decoded items
      * @param item Name of the code item.
@@ -472,7 +598,7 @@ public class MazeCode
      * @param version 0 or 1
      * @return A singleton object for the given version.
      */
-    public static MazeCode getInstance(int version)
+    public static synchronized MazeCode getInstance(int version)
     {
         if (_instance[version] == null)
         {
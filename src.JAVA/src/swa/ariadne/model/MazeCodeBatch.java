@@ -0,0 +1,285 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+
+/**
+ * Encodes and decodes many {@link MazeCode maze codes} at once.
+ * <p>
+ * The maze parameters are kept in primitive arrays, one entry per code.
+ * Decoding and encoding do not allocate any objects, unless the batch needs to grow.
+ * Invalid codes do not throw an exception; their entries are marked as {@link #Invalid}.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class MazeCodeBatch
+{
+    //--------------------- Constants
+
+    /** Code version of an entry whose code has been rejected: {@value}. */
+    public static final int Invalid = -1;
+
+    //--------------------- Member variables and Properties
+
+    /** For every code version: the singleton MazeCode. */
+    private final MazeCode[] codeObjs = { MazeCode.getInstance(0), MazeCode.getInstance(1) };
+
+    /** For every code version: the singleton MazeDimensions. */
+    private final MazeDimensions[] dimensionsObjs = { MazeDimensions.getInstance(0), MazeDimensions.getInstance(1) };
+
+    /** For every entry: the code version, or {@link #Invalid}. */
+    private byte[] codeVersion;
+
+    /** For every entry: the initial seed. */
+    private int[] seed;
+
+    /** For every entry: the width of the maze. */
+    private int[] xSize;
+
+    /** For every entry: the height of the maze. */
+    private int[] ySize;
+
+    /** For every entry: v0: the encoded start and end points; v1: 0. */
+    private int[] endPoints;
+
+    /** Number of entries. */
+    private int size;
+
+    /** @return Number of entries. */
+    public int size()
+    {
+        return size;
+    }
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param capacity The initial number of entries the batch can hold without growing.
+     */
+    public MazeCodeBatch(int capacity)
+    {
+        int n = Math.max(1, capacity);
+
+        this.codeVersion = new byte[n];
+        this.seed = new int[n];
+        this.xSize = new int[n];
+        this.ySize = new int[n];
+        this.endPoints = new int[n];
+    }
+
+    //--------------------- Queries
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return True if the entry holds the parameters of a valid code.
+     */
+    public boolean isValid(int k)
+    {
+        return codeVersion[k] != Invalid;
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return 0 or 1; {@link #Invalid} if the code has been rejected.
+     */
+    public int getCodeVersion(int k)
+    {
+        return codeVersion[k];
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return The initial seed; -1 if the code has been rejected.
+     */
+    public int getSeed(int k)
+    {
+        return seed[k];
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return The width of the maze; -1 if the code has been rejected.
+     */
+    public int getXSize(int k)
+    {
+        return xSize[k];
+    }
+
+    /**
+     * @param k An entry, between 0 and {@link #size()} (exclusive).
+     * @return The height of the maze; -1 if the code has been rejected.
+     */
+    public int getYSize(int k)
+    {
+        return ySize[k];
+    }
+
+    //--------------------- Modifiers
+
+    /**
+     * Removes all entries.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Appends the parameters of a maze.
+     * Version 0 codes also contain the start and end points; they are set to the first possible combination.
+     * @param codeVersion 0 or 1
+     * @param seed The initial seed.
+     * @param xSize Width of the maze.
+     * @param ySize Height of the maze.
+     * @return The new entry.
+     */
+    public int add(int codeVersion, int seed, int xSize, int ySize)
+    {
+        MazeCode codeObj = codeObjs[codeVersion];
+        MazeDimensions dimensionsObj = dimensionsObjs[codeVersion];
+
+        if (!(0 <= seed && seed < codeObj.getSeedLimit()
+              && dimensionsObj.getMinSize() <= xSize && xSize <= dimensionsObj.getMaxXSize()
+              && dimensionsObj.getMinSize() <= ySize && ySize <= dimensionsObj.getMaxYSize()))
+        {
+            throw new Error("invalid maze parameters: seed " + seed + ", [" + xSize + "," + ySize + "]");
+        }
+
+        return add((byte) codeVersion, seed, xSize, ySize, 0);
+    }
+
+    /**
+     * Appends the parameters of the given codes.
+     * A code that cannot be decoded is appended as an {@link #Invalid} entry.
+     * @param codes Maze code strings, with or without separators.
+     * @param offset Position of the first code.
+     * @param count Number of codes.
+     * @return The number of valid codes.
+     */
+    public int decode(CharSequence[] codes, int offset, int count)
+    {
+        int result = 0;
+
+        for (int i = offset; i < offset + count; i++)
+        {
+            if (decode(codes[i]))
+            {
+                ++result;
+            }
+        }
+
+        return result;
+    }
+
+    //--------------------- Encoding
+
+    /**
+     * Writes the code string of an entry.
+     * @param k A valid entry, between 0 and {@link #size()} (exclusive).
+     * @param dst Receives {@link MazeCode#getFormattedLength()} characters.
+     * @param offset Position of the first character in dst.
+     * @return Position following the last character in dst.
+     */
+    public int encode(int k, char[] dst, int offset)
+    {
+        if (!isValid(k))
+        {
+            throw new Error("entry " + k + " is invalid");
+        }
+
+        MazeCode codeObj = codeObjs[codeVersion[k]];
+        return codeObj.format(codeObj.toNumber(seed[k], xSize[k], ySize[k], endPoints[k]), dst, offset);
+    }
+
+    /**
+     * @param k A valid entry, between 0 and {@link #size()} (exclusive).
+     * @return The code string of the entry.
+     */
+    public String getCode(int k)
+    {
+        char[] result = new char[codeObjs[codeVersion[k]].getFormattedLength()];
+        encode(k, result, 0);
+        return new String(result);
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * Appends the parameters of the given code.
+     * @param code A maze code string.
+     * @return True if the code is valid.
+     */
+    private boolean decode(CharSequence code)
+    {
+        // Try the current version first; other versions are rejected after a few characters.
+        for (int v = codeObjs.length; v-- > 0; )
+        {
+            long nCode = codeObjs[v].toNumber(code);
+            if (nCode < 0)
+            {
+                continue;
+            }
+
+            MazeDimensions dimensionsObj = dimensionsObjs[v];
+            long itemRange;
+
+            itemRange = codeObjs[v].getSeedLimit();
+            int s = (int)(nCode % itemRange);
+            nCode /= itemRange;
+
+            itemRange = dimensionsObj.getMaxXSize() - dimensionsObj.getMinSize() + 1;
+            int x = (int)(nCode % itemRange) + dimensionsObj.getMinSize();
+            nCode /= itemRange;
+
+            itemRange = dimensionsObj.getMaxYSize() - dimensionsObj.getMinSize() + 1;
+            int y = (int)(nCode % itemRange) + dimensionsObj.getMinSize();
+            nCode /= itemRange;
+
+            add((byte) v, s, x, y, (int) nCode);
+            return true;
+        }
+
+        add((byte) Invalid, -1, -1, -1, 0);
+        return false;
+    }
+
+    /**
+     * Appends an entry.
+     * @param v The code version.
+     * @param s The initial seed.
+     * @param x Width of the maze.
+     * @param y Height of the maze.
+     * @param e The encoded start and end points.
+     * @return The new entry.
+     */
+    private int add(byte v, int s, int x, int y, int e)
+    {
+        if (size == codeVersion.length)
+        {
+            grow();
+        }
+
+        codeVersion[size] = v;
+        seed[size] = s;
+        xSize[size] = x;
+        ySize[size] = y;
+        endPoints[size] = e;
+
+        return size++;
+    }
+
+    /**
+     * Doubles the capacity.
+     */
+    private void grow()
+    {
+        int n = 2 * codeVersion.length;
+
+        this.codeVersion = Arrays.copyOf(codeVersion, n);
+        this.seed = Arrays.copyOf(seed, n);
+        this.xSize = Arrays.copyOf(xSize, n);
+        this.ySize = Arrays.copyOf(ySize, n);
+        this.endPoints = Arrays.copyOf(endPoints, n);
+    }
+}
@@ -176,7 +176,7 @@ class MazeDimensions
      * @param version 0 or 1
      * @return A singleton object for the given version.
      */
-    public static MazeDimensions getInstance(int version)
+    public static synchronized MazeDimensions getInstance(int version)
     {
         if (_instance[version] == null)
         {
@@ -0,0 +1,438 @@
+package swa.ariadne.model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed storage of all square attributes of a {@link Maze}.
+ * <p>
+ * Squares are identified by an index: <code>x + y * width</code>.
+ * Walls, maze IDs and the connected/visited flags are kept in primitive arrays.
+ * {@link MazeSquare} objects are only light-weight views of a square in this grid;
+ * they are created on demand, when a client asks for them.
+ * <p>
+ * The walls of a square are encoded in a single byte, two bits per {@link WallPosition}.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class MazeGrid
+{
+    //--------------------- Constants
+
+    /** Number of bits used for encoding a single {@link WallState}. */
+    public static final int WallBits = 2;
+
+    /** Mask for a single encoded {@link WallState}. */
+    private static final int WallMask = (1 << WallBits) - 1;
+
+    /** All WallState values, indexed by their ordinal. */
+    private static final WallState[] wallStates = WallState.values();
+
+    /** For every encoded set of four walls: a bit mask of the open walls, see {@link #getOpenWalls(int)}. */
+    private static final byte[] openWallMasks = new byte[1 << (WallBits * WallPosition.NUM)];
+
+    static
+    {
+        for (int w = 0; w < openWallMasks.length; w++)
+        {
+            for (int side = 0; side < WallPosition.NUM; side++)
+            {
+                if (((w >> (side * WallBits)) & WallMask) == WallState.WS_OPEN.ordinal())
+                {
+                    openWallMasks[w] |= (1 << side);
+                }
+            }
+        }
+    }
+
+    /** Number of bits in one element of the flag arrays. */
+    private static final int FlagBits = 64;
+
+    //--------------------- Member variables and Properties
+
+    /** Width of the grid. */
+    private final int width;
+
+    /** @return Width of the grid. */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /** Height of the grid. */
+    private final int height;
+
+    /** @return Height of the grid. */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /** @return Number of squares in the grid: width * height. */
+    public int getSquareCount()
+    {
+        return width * height;
+    }
+
+    /** For every square: the four WallStates, {@value #WallBits} bits each. */
+    private final byte[] walls;
+
+    /** For every square: the maze ID. */
+    private final byte[] mazeIds;
+
+    /** For every square: one bit that is set while building when the square is connected to the maze. */
+    private final long[] connected;
+
+    /** The squares that have been visited while solving. */
+    private final VisitedSet visited;
+
+    /**
+     * @return The squares that have been visited while solving.
+     * @see #isVisited(int)
+     */
+    public VisitedSet getVisitedSet()
+    {
+        return visited;
+    }
+
+    /** The views of the squares; every view is created when it is first requested. */
+    private volatile MazeSquare[] squares;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * All walls are {@link WallState#WS_MAYBE}, all squares belong to the primary maze.
+     * @param width Width of the grid.
+     * @param height Height of the grid.
+     */
+    MazeGrid(int width, int height)
+    {
+        int n = width * height;
+
+        this.width = width;
+        this.height = height;
+        this.walls = new byte[n]; // WS_MAYBE is encoded as 0.
+        this.mazeIds = new byte[n];
+        this.connected = new long[(n + FlagBits - 1) / FlagBits];
+        this.visited = new VisitedSet(n);
+
+        Arrays.fill(mazeIds, (byte) MazeSquare.PrimaryMazeId);
+    }
+
+    /**
+     * Copy constructor.
+     * Walls and maze IDs are copied, the connected and visited flags are not.
+     * @param template The grid that is copied.
+     */
+    MazeGrid(MazeGrid template)
+    {
+        this(template.width, template.height);
+
+        System.arraycopy(template.walls, 0, this.walls, 0, walls.length);
+        System.arraycopy(template.mazeIds, 0, this.mazeIds, 0, mazeIds.length);
+    }
+
+    //--------------------- Coordinates
+
+    /**
+     * @param x A valid X coordinate.
+     * @param y A valid Y coordinate.
+     * @return The index of the square at coordinates (x, y).
+     */
+    public int getIndex(int x, int y)
+    {
+        return x + y * width;
+    }
+
+    /**
+     * @param index A square index.
+     * @return The square's X coordinate.
+     */
+    public int getXPos(int index)
+    {
+        return index % width;
+    }
+
+    /**
+     * @param index A square index.
+     * @return The square's Y coordinate.
+     */
+    public int getYPos(int index)
+    {
+        return index / width;
+    }
+
+    /**
+     * @param index A square index.
+     * @param side One of the four directions.
+     * @return The index of the neighbor square on the given side, or -1 if that is outside of the grid.
+     */
+    public int getNeighborIndex(int index, WallPosition side)
+    {
+        switch (side)
+        {
+            case WP_E:
+                return (index % width < width - 1 ? index + 1 : -1);
+            case WP_N:
+                return (index >= width ? index - width : -1);
+            case WP_W:
+                return (index % width > 0 ? index - 1 : -1);
+            case WP_S:
+                return (index < walls.length - width ? index + width : -1);
+            default:
+                throw new IllegalArgumentException("invalid argument: " + side);
+        }
+    }
+
+    /**
+     * @param index A square index.
+     * @param side The ordinal of a {@link WallPosition} where the square has an open wall.
+     * @return The index of the neighbor square on the given side.
+     * Unlike {@link #getNeighborIndex(int, WallPosition)}, the grid borders are not checked.
+     * @see #getOpenWalls(int)
+     */
+    public int getOpenNeighborIndex(int index, int side)
+    {
+        switch (side)
+        {
+            case 0: // WP_E
+                return index + 1;
+            case 1: // WP_N
+                return index - width;
+            case 2: // WP_W
+                return index - 1;
+            default: // WP_S
+                return index + width;
+        }
+    }
+
+    //--------------------- Walls
+
+    /**
+     * @param index A square index.
+     * @param side One of the four directions.
+     * @return The WallState at the given position.
+     */
+    public WallState getWall(int index, WallPosition side)
+    {
+        return wallStates[(walls[index] >> (side.ordinal() * WallBits)) & WallMask];
+    }
+
+    /**
+     * @param index A square index.
+     * @param side One of the four directions.
+     * @param value The new WallState.
+     */
+    public void setWall(int index, WallPosition side, WallState value)
+    {
+        int shift = side.ordinal() * WallBits;
+        walls[index] = (byte) ((walls[index] & ~(WallMask << shift)) | (value.ordinal() << shift));
+    }
+
+    /**
+     * @param index A square index.
+     * @param side One of the four directions.
+     * @return True if the wall at the given position is open.
+     */
+    public boolean isOpen(int index, WallPosition side)
+    {
+        return ((walls[index] >> (side.ordinal() * WallBits)) & WallMask) == WallState.WS_OPEN.ordinal();
+    }
+
+    /**
+     * @param index A square index.
+     * @return A bit mask of the open walls: bit <code>side.ordinal()</code> is set if that wall is open.
+     */
+    public int getOpenWalls(int index)
+    {
+        return openWallMasks[walls[index] & 0xFF];
+    }
+
+    /**
+     * @param index A square index.
+     * @return Number of closed walls.
+     */
+    int countClosedWalls(int index)
+    {
+        int result = 0;
+
+        for (int w = walls[index] & 0xFF; w != 0; w >>= WallBits)
+        {
+            if ((w & WallMask) == WallState.WS_CLOSED.ordinal())
+            {
+                ++result;
+            }
+        }
+
+        return result;
+    }
+
+    //--------------------- Maze IDs
+
+    /**
+     * @param index A square index.
+     * @return The square's maze ID.
+     * @see MazeSquare#getMazeId()
+     */
+    public int getMazeId(int index)
+    {
+        return mazeIds[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @param value The maze ID, already validated by the caller.
+     */
+    void setMazeId(int index, int value)
+    {
+        mazeIds[index] = (byte) value;
+    }
+
+    //--------------------- Flags
+
+    /**
+     * @param index A square index.
+     * @return True if the square has been connected to the maze while building.
+     */
+    boolean isConnected(int index)
+    {
+        return (connected[index / FlagBits] & (1L << index)) != 0;
+    }
+
+    /**
+     * Marks the square as connected to the maze.
+     * @param index A square index.
+     */
+    void setConnected(int index)
+    {
+        connected[index / FlagBits] |= (1L << index);
+    }
+
+    /**
+     * @param index A square index.
+     * @return True if the square has been visited while solving.
+     */
+    public boolean isVisited(int index)
+    {
+        return visited.isVisited(index);
+    }
+
+    /**
+     * @param index A square index.
+     * @param value True if the square has been visited.
+     */
+    public void setVisited(int index, boolean value)
+    {
+        visited.setVisited(index, value);
+    }
+
+    /**
+     * @return Number of squares that have been visited.
+     */
+    public int countVisited()
+    {
+        return visited.count();
+    }
+
+    /**
+     * Clears the visited flag of all squares.
+     */
+    void clearVisited()
+    {
+        visited.clear();
+    }
+
+    //--------------------- Bulk transfer
+
+    /**
+     * @return Number of bytes written by {@link #writeTo(ByteBuffer)}.
+     */
+    int getByteCount()
+    {
+        return walls.length + mazeIds.length;
+    }
+
+    /**
+     * Writes the walls and maze IDs of all squares.
+     * @param dst Receives {@link #getByteCount()} bytes.
+     */
+    void writeTo(ByteBuffer dst)
+    {
+        dst.put(walls);
+        dst.put(mazeIds);
+    }
+
+    /**
+     * Reads the walls and maze IDs of all squares, as written by {@link #writeTo(ByteBuffer)}.
+     * @param src Provides {@link #getByteCount()} bytes.
+     */
+    void readFrom(ByteBuffer src)
+    {
+        src.get(walls);
+        src.get(mazeIds);
+    }
+
+    //--------------------- Views
+
+    /**
+     * @param index A square index.
+     * @return The MazeSquare view of the given square.
+     */
+    public MazeSquare getSquare(int index)
+    {
+        MazeSquare[] views = this.squares;
+
+        // Note: As the fields of a view are final, it is safe to read it without synchronization.
+        MazeSquare result = (views == null ? null : views[index]);
+
+        if (result == null)
+        {
+            result = createSquare(index);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param indexes A list of square indexes, e.g. a path.
+     * @return The MazeSquare views of the given squares, in the same order.
+     */
+    public List<MazeSquare> getSquares(int[] indexes)
+    {
+        List<MazeSquare> result = new ArrayList<MazeSquare>(indexes.length);
+
+        for (int i : indexes)
+        {
+            result.add(getSquare(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the view of a square, unless it exists already.
+     * As views are compared by identity, this must happen only once per square.
+     * @param index A square index.
+     * @return The MazeSquare view of the given square.
+     */
+    private synchronized MazeSquare createSquare(int index)
+    {
+        if (this.squares == null)
+        {
+            this.squares = new MazeSquare[walls.length];
+        }
+
+        MazeSquare result = this.squares[index];
+        if (result == null)
+        {
+            result = new MazeSquare(this, index);
+            this.squares[index] = result;
+        }
+
+        return result;
+    }
+}
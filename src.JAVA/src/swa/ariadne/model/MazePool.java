@@ -0,0 +1,296 @@
+package swa.ariadne.model;
+
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Keeps completely built {@link Maze Mazes} ready, so that a new maze is available without waiting for {@link Maze#createMaze()}.
+ * <p>
+ * Mazes are pooled by their layout: dimensions, code version and reserved areas.
+ * A client describes the desired layout with a template maze that has not been built, yet.
+ * Whenever a maze is taken from the pool, background tasks build replacements.
+ * <p>
+ * Mazes that have been handed out are also remembered by their {@link MazeCode}, so that they can be replayed.
+ * <p>
+ * The number of layouts, the number of mazes per layout and the number of remembered codes are bounded;
+ * the least recently used entries are discarded.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class MazePool
+{
+    //--------------------- Constants
+
+    /** Maximum number of layouts for which mazes are kept ready: {@value}. */
+    private static final int MaxLayouts = 4;
+
+    //--------------------- Member variables and Properties
+
+    /** Number of mazes kept ready for every layout. */
+    private final int capacity;
+
+    /** The pool executing the refill tasks. */
+    private final ForkJoinPool pool;
+
+    /** For every layout: the mazes that are ready, and the number of mazes being built. */
+    private final Map<Layout, Entry> entries = new LinkedHashMap<Layout, Entry>(16, 0.75f, true)
+    {
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Layout, Entry> eldest)
+        {
+            return size() > MaxLayouts;
+        }
+    };
+
+    /** The recently handed out mazes, by their code. */
+    private final Map<String, Maze> recentMazes;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * The mazes are built in the common fork-join pool.
+     * @param capacity Number of mazes kept ready for every layout.
+     * @param recentCapacity Number of mazes remembered for replaying.
+     */
+    public MazePool(int capacity, int recentCapacity)
+    {
+        this(capacity, recentCapacity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     * @param capacity Number of mazes kept ready for every layout.
+     * @param recentCapacity Number of mazes remembered for replaying.
+     * @param pool The pool executing the refill tasks.
+     */
+    public MazePool(int capacity, final int recentCapacity, ForkJoinPool pool)
+    {
+        this.capacity = capacity;
+        this.pool = pool;
+        this.recentMazes = new LinkedHashMap<String, Maze>(16, 0.75f, true)
+        {
+            /** For serialization. */
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Maze> eldest)
+            {
+                return size() > recentCapacity;
+            }
+        };
+    }
+
+    //--------------------- Taking Mazes
+
+    /**
+     * Returns a built maze with the same layout as the given template.
+     * If no such maze is ready, the template itself is built and returned.
+     * In any case, background tasks start building mazes of this layout for later calls.
+     * @param template A maze that has not been built, but may have reserved areas.
+     * @return A completely built maze.
+     */
+    public Maze take(Maze template)
+    {
+        Maze result = null;
+
+        // Reserved areas with a shape are not repeated.
+        if (!template.hasShapedReservedAreas())
+        {
+            Layout layout = new Layout(template);
+            Entry entry;
+            int missing;
+
+            synchronized (entries)
+            {
+                entry = entries.get(layout);
+                if (entry == null)
+                {
+                    entry = new Entry();
+                    entries.put(layout, entry);
+                }
+                result = entry.ready.poll();
+                missing = capacity - entry.ready.size() - entry.pending;
+                entry.pending += Math.max(0, missing);
+            }
+
+            for (int i = 0; i < missing; i++)
+            {
+                pool.execute(new RefillTask(layout, entry));
+            }
+        }
+
+        if (result == null)
+        {
+            template.createMaze();
+            result = template;
+        }
+
+        synchronized (recentMazes)
+        {
+            recentMazes.put(result.getCode(), result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a maze that has been handed out before, reset to its initial state.
+     * @param code A maze code.
+     * @return The maze with the given code; null if it is not remembered any more.
+     * The maze must not be in use any more.
+     */
+    public Maze replay(String code)
+    {
+        Maze result;
+
+        synchronized (recentMazes)
+        {
+            result = recentMazes.get(code);
+        }
+
+        if (result != null)
+        {
+            result.reset();
+        }
+
+        return result;
+    }
+
+    //--------------------- Types
+
+    /**
+     * The parameters shared by all mazes of a pool entry.
+     */
+    private static final class Layout
+    {
+        /** Width of the maze. */
+        private final int xSize;
+
+        /** Height of the maze. */
+        private final int ySize;
+
+        /** Maze code version: 0 or 1. */
+        private final int codeVersion;
+
+        /** The reserved areas, in the order of their reservation. */
+        private final List<Rectangle> reservedAreas;
+
+        /**
+         * Constructor.
+         * @param template A maze that has not been built.
+         */
+        Layout(Maze template)
+        {
+            this.xSize = template.getXSize();
+            this.ySize = template.getYSize();
+            this.codeVersion = template.getCodeVersion();
+            this.reservedAreas = new ArrayList<Rectangle>(template.getReservedAreas());
+        }
+
+        /**
+         * @return A new maze with this layout, completely built.
+         */
+        Maze createMaze()
+        {
+            Maze result = new Maze(xSize, ySize, codeVersion);
+
+            for (Rectangle rect : reservedAreas)
+            {
+                result.reserveRectangle(rect.x, rect.y, rect.width, rect.height, null);
+            }
+            result.createMaze();
+
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Layout))
+            {
+                return false;
+            }
+
+            Layout other = (Layout) obj;
+            return xSize == other.xSize && ySize == other.ySize && codeVersion == other.codeVersion
+                && reservedAreas.equals(other.reservedAreas);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (xSize * 31 + ySize) * 31 + codeVersion + reservedAreas.hashCode();
+        }
+    }
+
+    /**
+     * The mazes of a single layout.
+     */
+    private static final class Entry
+    {
+        /** The mazes that are ready. */
+        final Deque<Maze> ready = new ArrayDeque<Maze>();
+
+        /** Number of mazes being built. */
+        int pending = 0;
+    }
+
+    /**
+     * Builds a maze and puts it into the pool.
+     */
+    private final class RefillTask
+    implements Runnable
+    {
+        /** The layout of the maze. */
+        private final Layout layout;
+
+        /** Receives the maze. */
+        private final Entry entry;
+
+        /**
+         * Constructor.
+         * @param layout The layout of the maze.
+         * @param entry Receives the maze.
+         */
+        RefillTask(Layout layout, Entry entry)
+        {
+            this.layout = layout;
+            this.entry = entry;
+        }
+
+        @Override
+        public void run()
+        {
+            Maze maze = null;
+
+            try
+            {
+                maze = layout.createMaze();
+            }
+            finally
+            {
+                // Note: The entry may have been discarded in the meantime; then, the maze is lost.
+                // If the maze could not be created, the next request will schedule another task.
+                synchronized (entries)
+                {
+                    if (maze != null)
+                    {
+                        entry.ready.add(maze);
+                    }
+                    entry.pending -= 1;
+                }
+            }
+        }
+    }
+}
@@ -3,6 +3,9 @@ package swa.ariadne.model;
 /**
  * MazeSquares are the building blocks of a {@link Maze}.
  * They have open or closed walls on all four sides.
+ * <p>
+ * A MazeSquare is a light-weight view of one square in a {@link MazeGrid};
+ * all its attributes are stored in the grid.
  * 
  * @author Stephan.Wacker@web.de
  */
@@ -11,10 +14,27 @@ class MazeSquare
 {
     //--------------------- Member variables and Properties 
     
+    /**
+     * The grid that holds the actual square attributes.
+     */
+    private final MazeGrid _grid;
+
+    /**
+     * Index of this square in the grid.
+     */
+    private final int _index;
+
+    /**
+     * @return The index of this square in its {@link MazeGrid}.
+     */
+    public int getIndex() {
+        return _index;
+    }
+
     /**
      * X coordinate. 
      */
-    private int _xPos;
+    private final int _xPos;
 
     /**
      * @return the xPos
@@ -26,7 +46,7 @@ class MazeSquare
     /**
      * Y coordinate. 
      */
-    private int _yPos;
+    private final int _yPos;
 
     /**
      * @return the yPos
@@ -35,18 +55,13 @@ class MazeSquare
         return _yPos;
     }
 
-    /**
-     *  The four walls around a square.
-     */
-    private WallState[] _walls = new WallState[WallPosition.NUM];
-
     /**
      * @param side One of the four directions.
      * @param value The new WallState.
      */
     public void setWall(WallPosition side, WallState value)
     {
-        this._walls[side.ordinal()] = value;
+        _grid.setWall(_index, side, value);
     }
 
     /**
@@ -55,14 +70,9 @@ class MazeSquare
      */
     public WallState getWall(WallPosition side)
     {
-        return _walls[side.ordinal()];
+        return _grid.getWall(_index, side);
     }
 
-    /**
-     * Identifies the maze this square belongs to.
-     */
-    private int _mazeId;
-    
     /**
      * Number of valid maze IDs, including the reserved ID.
      */
@@ -90,7 +100,7 @@ class MazeSquare
     {
         if (value >= PrimaryMazeId && value <= MaxMazeId)
         {
-            this._mazeId = value;
+            _grid.setMazeId(_index, value);
         }
         else
         {
@@ -107,7 +117,7 @@ class MazeSquare
      */
     public int getMazeId()
     {
-        return this._mazeId;
+        return _grid.getMazeId(_index);
     }
 
     /**
@@ -115,7 +125,7 @@ class MazeSquare
      */
     public void setIsReserved()
     {
-        this._mazeId = ReservedMazeId;
+        _grid.setMazeId(_index, ReservedMazeId);
     }
     
     /**
@@ -123,31 +133,42 @@ class MazeSquare
      */
     public boolean getIsReserved()
     {
-        return (this._mazeId == ReservedMazeId);
+        return (getMazeId() == ReservedMazeId);
     }
     
     /**
      * Used while building: Square is connected to the maze.
+     * @return True if the square is connected to the maze.
      */
-    boolean isConnected = false;
-    
+    boolean isConnected()
+    {
+        return _grid.isConnected(_index);
+    }
+
     /**
-     * Used while solving: Square has been visited.
+     * Used while building: Marks the square as connected to the maze.
      */
-    public boolean isVisited = false;
-
+    void setConnected()
+    {
+        _grid.setConnected(_index);
+    }
+    
     /**
-     * Adjoining squares in the four directions.
+     * Used while solving: Square has been visited.
+     * @return True if the square has been visited.
      */
-    private MazeSquare[] _neighbors = new MazeSquare[WallPosition.NUM];
+    public boolean isVisited()
+    {
+        return _grid.isVisited(_index);
+    }
 
     /**
-     * @param side One of the four directions. 
-     * @param neighbor The neighbor on the given side.
+     * Used while solving.
+     * @param value True if the square has been visited.
      */
-    public void setNeighbor(WallPosition side, MazeSquare neighbor)
+    public void setVisited(boolean value)
     {
-        this._neighbors[side.ordinal()] = neighbor;
+        _grid.setVisited(_index, value);
     }
 
     /**
@@ -156,7 +177,8 @@ class MazeSquare
      */
     public MazeSquare getNeighbor(WallPosition side)
     {
-        return this._neighbors[side.ordinal()];
+        int neighbor = _grid.getNeighborIndex(_index, side);
+        return (neighbor < 0 ? null : _grid.getSquare(neighbor));
     }
 
     /**
@@ -164,36 +186,22 @@ class MazeSquare
      */
     int countClosedWalls()
     {
-        int result = 0;
-
-        for (WallPosition wp : WallPosition.values())
-        {
-            if (getWall(wp) == WallState.WS_CLOSED)
-            {
-                ++result;
-            }
-        }
-
-        return result;
+        return _grid.countClosedWalls(_index);
     }
     
     //--------------------- Constructors 
     
     /**
      * Constructor.
-     * @param xPos X coordinate
-     * @param yPos Y coordinate
+     * @param grid The grid that holds the actual square attributes.
+     * @param index Index of this square in the grid.
      */
-    public MazeSquare(int xPos, int yPos)
+    MazeSquare(MazeGrid grid, int index)
     {
-        this._xPos = xPos;
-        this._yPos = yPos;
-        this._mazeId = PrimaryMazeId;
-        
-        for (WallPosition wp : WallPosition.values())
-        {
-            this.setWall(wp, WallState.WS_MAYBE);
-        }
+        this._grid = grid;
+        this._index = index;
+        this._xPos = grid.getXPos(index);
+        this._yPos = grid.getYPos(index);
     }
 
     //--------------------- Auxiliary methods 
@@ -203,6 +211,6 @@ class MazeSquare
      */
     public String toString()
     {
-        return _xPos + "/" + _yPos + ": " + _mazeId;
+        return _xPos + "/" + _yPos + ": " + getMazeId();
     }
 }
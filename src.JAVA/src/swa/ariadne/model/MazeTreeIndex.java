@@ -0,0 +1,294 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+
+/**
+ * The spanning tree formed by the open walls of a completely built {@link Maze}, rooted at the start square.
+ * <p>
+ * All properties are computed once, in a single depth first traversal, and stored in primitive arrays
+ * indexed by the square index of the {@link MazeGrid}.
+ * Afterwards, all queries take constant time.
+ * <p>
+ * Squares that are not connected to the start square (e.g. in reserved areas) have no parent,
+ * a depth of -1 and a subtree size of 0.
+ * <p>
+ * A MazeTreeIndex is immutable.  It reflects the walls at the time of its construction.
+ *
+ * @author Stephan.Wacker@web.de
+ * @see Maze#getTreeIndex()
+ */
+public final
+class MazeTreeIndex
+{
+    //--------------------- Constants
+
+    /** All WallPosition values. */
+    private static final WallPosition[] wallPositions = WallPosition.values();
+
+    /** Flag: The square is on the path from the start square to the target square. */
+    private static final byte OnSolutionPath = 0x01;
+
+    /** Flag: The square is a dead end, i.e. a leaf of the tree. */
+    private static final byte DeadEnd = 0x02;
+
+    //--------------------- Member variables and Properties
+
+    /** Index of the root square: the start square. */
+    private final int startIndex;
+
+    /** Index of the target square. */
+    private final int targetIndex;
+
+    /** For every square: the parent square index; -1 for the root and unconnected squares. */
+    private final int[] parent;
+
+    /** For every square: the distance from the start square; -1 for unconnected squares. */
+    private final int[] depth;
+
+    /** For every square: the number of squares in its subtree, including itself. */
+    private final int[] subtreeSize;
+
+    /** For every square: its position in the preorder sequence; -1 for unconnected squares. */
+    private final int[] preorder;
+
+    /** For every square: the distance from the target square; -1 for unconnected squares. */
+    private final int[] targetDistance;
+
+    /** For every square: a combination of the {@link #OnSolutionPath} and {@link #DeadEnd} flags. */
+    private final byte[] flags;
+
+    /** Number of squares connected to the start square. */
+    private final int connectedCount;
+
+    /** Number of dead end squares. */
+    private final int deadEndCount;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * @param grid A grid with tree-like open walls.
+     * @param startIndex Index of the start square; the root of the tree.
+     * @param targetIndex Index of the target square.
+     */
+    public MazeTreeIndex(MazeGrid grid, int startIndex, int targetIndex)
+    {
+        int n = grid.getSquareCount();
+
+        this.startIndex = startIndex;
+        this.targetIndex = targetIndex;
+        this.parent = new int[n];
+        this.depth = new int[n];
+        this.subtreeSize = new int[n];
+        this.preorder = new int[n];
+        this.targetDistance = new int[n];
+        this.flags = new byte[n];
+
+        Arrays.fill(parent, -1);
+        Arrays.fill(depth, -1);
+        Arrays.fill(preorder, -1);
+        Arrays.fill(targetDistance, -1);
+
+        //--------------------- Depth first traversal: parent, depth, preorder.
+
+        // The squares in preorder.
+        int[] order = new int[n];
+        int count = 0;
+
+        // Every square is pushed exactly once.
+        int[] stack = new int[n];
+        int stackSize = 0;
+
+        stack[stackSize++] = startIndex;
+        depth[startIndex] = 0;
+
+        while (stackSize > 0)
+        {
+            int i = stack[--stackSize];
+            preorder[i] = count;
+            order[count++] = i;
+
+            for (WallPosition wp : wallPositions)
+            {
+                if (grid.isOpen(i, wp))
+                {
+                    int j = grid.getNeighborIndex(i, wp);
+                    if (j >= 0 && depth[j] < 0)
+                    {
+                        parent[j] = i;
+                        depth[j] = depth[i] + 1;
+                        stack[stackSize++] = j;
+                    }
+                }
+            }
+        }
+
+        this.connectedCount = count;
+
+        //--------------------- Reverse preorder: subtree sizes and dead ends.
+
+        int deadEnds = 0;
+
+        for (int p = count; p-- > 0; )
+        {
+            int i = order[p];
+            subtreeSize[i] += 1;
+
+            if (subtreeSize[i] == 1 && i != startIndex)
+            {
+                flags[i] |= DeadEnd;
+                ++deadEnds;
+            }
+
+            if (parent[i] >= 0)
+            {
+                subtreeSize[parent[i]] += subtreeSize[i];
+            }
+        }
+
+        this.deadEndCount = deadEnds;
+
+        //--------------------- Solution path and distance to the target.
+
+        for (int i = targetIndex; i >= 0; i = parent[i])
+        {
+            flags[i] |= OnSolutionPath;
+        }
+
+        // In preorder, the junction of the parent is known before the child is visited.
+        // The junction is the nearest square on the solution path; the path to the target leads through it.
+        int[] junction = new int[n];
+        int targetDepth = depth[targetIndex];
+
+        for (int p = 0; p < count; p++)
+        {
+            int i = order[p];
+            junction[i] = ((flags[i] & OnSolutionPath) != 0 ? i : junction[parent[i]]);
+            targetDistance[i] = depth[i] + targetDepth - 2 * depth[junction[i]];
+        }
+    }
+
+    //--------------------- Queries
+
+    /** @return Index of the start square, the root of the tree. */
+    public int getStartIndex()
+    {
+        return startIndex;
+    }
+
+    /** @return Index of the target square. */
+    public int getTargetIndex()
+    {
+        return targetIndex;
+    }
+
+    /**
+     * @param index A square index.
+     * @return True if the square is connected to the start square.
+     */
+    public boolean isConnected(int index)
+    {
+        return depth[index] >= 0;
+    }
+
+    /**
+     * @param index A square index.
+     * @return Index of the parent square, i.e. the neighbor that is closer to the start square;
+     * -1 for the start square and unconnected squares.
+     */
+    public int getParent(int index)
+    {
+        return parent[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @return Number of steps from the start square; -1 for unconnected squares.
+     */
+    public int getDepth(int index)
+    {
+        return depth[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @return Number of squares in the subtree of the given square, including itself; 0 for unconnected squares.
+     */
+    public int getSubtreeSize(int index)
+    {
+        return subtreeSize[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @return Number of steps to the target square; -1 for unconnected squares.
+     */
+    public int getDistanceToTarget(int index)
+    {
+        return targetDistance[index];
+    }
+
+    /**
+     * @param index A square index.
+     * @return True if the square is on the path from the start square to the target square.
+     */
+    public boolean isOnSolutionPath(int index)
+    {
+        return (flags[index] & OnSolutionPath) != 0;
+    }
+
+    /**
+     * @param index A square index.
+     * @return True if the square is a leaf of the tree, other than the start square.
+     */
+    public boolean isDeadEnd(int index)
+    {
+        return (flags[index] & DeadEnd) != 0;
+    }
+
+    /**
+     * @param ancestor A square index.
+     * @param index A square index.
+     * @return True if the first square is on the path from the start square to the second square (both included).
+     */
+    public boolean isAncestor(int ancestor, int index)
+    {
+        int p = preorder[ancestor], q = preorder[index];
+        return p >= 0 && q >= 0 && p <= q && q < p + subtreeSize[ancestor];
+    }
+
+    //--------------------- Metrics
+
+    /** @return Number of squares connected to the start square. */
+    public int getConnectedCount()
+    {
+        return connectedCount;
+    }
+
+    /** @return Number of dead end squares. */
+    public int getDeadEndCount()
+    {
+        return deadEndCount;
+    }
+
+    /** @return Number of steps on the solution path. */
+    public int getSolutionLength()
+    {
+        return depth[targetIndex];
+    }
+
+    /**
+     * @return The square indexes on the path from the start square to the target square (both included).
+     */
+    public int[] getSolutionPath()
+    {
+        int[] result = new int[depth[targetIndex] + 1];
+
+        for (int i = targetIndex, p = result.length; p-- > 0; i = parent[i])
+        {
+            result[p] = i;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+
+/**
+ * Finds paths between squares of a {@link MazeGrid}, using only its open walls.
+ * <p>
+ * The grid is neither copied nor modified; in particular, the visited flags are not used.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class PathFinder
+{
+    //--------------------- Constants
+
+    /** All WallPosition values. */
+    private static final WallPosition[] wallPositions = WallPosition.values();
+
+    //--------------------- Static methods
+
+    /**
+     * @param maze A completely built maze.
+     * @return The square indexes on the path from the start square to the target square (both included).
+     */
+    public static int[] getSolutionPath(Maze maze)
+    {
+        return findPath(maze.getGrid(), maze.getStartIndex(), maze.getTargetIndex());
+    }
+
+    /**
+     * Runs a breadth first search from the target square until the source square is reached.
+     * Every reached square records its predecessor in the direction of the target.
+     * Thus, the path can be read from source to target without reversing it.
+     * @param grid A grid with open and closed walls.
+     * @param from Index of the first square.
+     * @param to Index of the last square.
+     * @return The square indexes on the path (both end points included) -- or null if the squares are not connected.
+     */
+    public static int[] findPath(MazeGrid grid, int from, int to)
+    {
+        int n = grid.getSquareCount();
+
+        // For every reached square: the next square on the way to the target.
+        int[] next = new int[n];
+        Arrays.fill(next, -1);
+        next[to] = to;
+
+        // The BFS queue; every square is entered at most once.
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        queue[tail++] = to;
+
+        while (head < tail && next[from] < 0)
+        {
+            int i = queue[head++];
+
+            for (WallPosition wp : wallPositions)
+            {
+                if (grid.isOpen(i, wp))
+                {
+                    int j = grid.getNeighborIndex(i, wp);
+                    if (j >= 0 && next[j] < 0)
+                    {
+                        next[j] = i;
+                        queue[tail++] = j;
+                    }
+                }
+            }
+        }
+
+        if (next[from] < 0)
+        {
+            return null;
+        }
+
+        // Count the path length, then collect the path.
+        int length = 1;
+        for (int i = from; i != to; i = next[i])
+        {
+            ++length;
+        }
+
+        int[] result = new int[length];
+        for (int i = from, p = 0; p < length; i = next[i], p++)
+        {
+            result[p] = i;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package swa.ariadne.model;
+
+import java.util.Arrays;
+
+/**
+ * The set of squares visited while solving a maze.
+ * <p>
+ * A {@link MazeGrid} has its own VisitedSet, which is also seen through {@link MazeSquare#isVisited()}.
+ * A solver may keep its visited squares in a separate set instead.
+ * Then, several solvers can work on the same maze at the same time, as its grid is not modified.
+ * <p>
+ * Every square is stamped with the epoch in which it was visited.
+ * Clearing the set only starts a new epoch, so a maze can be solved again without touching every square.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public final
+class VisitedSet
+{
+    //--------------------- Member variables
+
+    /** For every square: the epoch in which it has been visited; 0 if it has never been visited. */
+    private final int[] stamps;
+
+    /** The current epoch; a square is visited if it carries this stamp.  Never 0. */
+    private int epoch = 1;
+
+    /** Number of squares visited in the current epoch. */
+    private int count = 0;
+
+    //--------------------- Constructors
+
+    /**
+     * Constructor.
+     * No square is visited.
+     * @param squareCount Number of squares in the maze.
+     */
+    public VisitedSet(int squareCount)
+    {
+        this.stamps = new int[squareCount];
+    }
+
+    //--------------------- Queries and Modifiers
+
+    /**
+     * @param index A square index.
+     * @return True if the square has been visited.
+     */
+    public boolean isVisited(int index)
+    {
+        return stamps[index] == epoch;
+    }
+
+    /**
+     * @param index A square index.
+     * @param value True if the square has been visited.
+     */
+    public void setVisited(int index, boolean value)
+    {
+        if (value != (stamps[index] == epoch))
+        {
+            stamps[index] = (value ? epoch : 0);
+            count += (value ? +1 : -1);
+        }
+    }
+
+    /**
+     * @return Number of squares that have been visited.
+     */
+    public int count()
+    {
+        return count;
+    }
+
+    /**
+     * Clears the visited flag of all squares.
+     * This takes constant time, except once every 2^32 - 1 calls, when the stamps run out.
+     */
+    public void clear()
+    {
+        if (++epoch == 0)
+        {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+        count = 0;
+    }
+}
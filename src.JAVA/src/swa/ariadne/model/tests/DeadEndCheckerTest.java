@@ -0,0 +1,197 @@
+package swa.ariadne.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import swa.ariadne.logic.IMazeSolver;
+import swa.ariadne.logic.SolverStatistics;
+import swa.ariadne.logic.factory.SolverFactory;
+import swa.ariadne.model.DeadEndChecker;
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * Test class for swa.ariadne.model.DeadEndChecker.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class DeadEndCheckerTest
+{
+    //--------------------- Unit tests for DeadEndChecker
+
+    /**
+     * Test method for {@link DeadEndChecker#visit(int)}.
+     * A square must be dead if and only if it has no trajectory to the target square.
+     */
+    @Test
+    public final void DEC_testVisit_01()
+    {
+        for (int seed = 0; seed < 10; seed++)
+        {
+            Maze maze = createMaze(seed);
+            MazeGrid grid = maze.getGrid();
+            DeadEndChecker target = new DeadEndChecker(maze);
+            IMazeSolver solver = SolverFactory.createSolver("RandomBacktracker", maze, null);
+
+            boolean[] visited = new boolean[grid.getSquareCount()];
+            visited[maze.getStartIndex()] = true;
+            assertTrue("start square is alive", target.isDead(maze.getStartIndex()));
+
+            IMazeSolver.StepResult step = new IMazeSolver.StepResult();
+            while (!maze.isSolved())
+            {
+                solver.step(step);
+                int index = step.sq2.getIndex();
+                visited[index] = true;
+
+                int n = target.visit(index);
+                assertTrue("visited square is alive", target.isDead(index));
+
+                boolean[] reachable = findTrajectories(maze, visited);
+                for (int k = 0; k < n; k++)
+                {
+                    int killed = target.getKilledSquare(k);
+                    assertFalse("killed a square with a trajectory", reachable[killed]);
+                }
+                for (int i = 0; i < visited.length && !visited[maze.getTargetIndex()]; i++)
+                {
+                    assertEquals("wrong dead flag", !reachable[i], target.isDead(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link DeadEndChecker#visit(int)}.
+     * Squares are visited in a random order, regardless of walls; this cuts off many pieces of the grid.
+     */
+    @Test
+    public final void DEC_testVisit_02()
+    {
+        for (int seed = 0; seed < 10; seed++)
+        {
+            Maze maze = createMaze(seed);
+            MazeGrid grid = maze.getGrid();
+            DeadEndChecker target = new DeadEndChecker(maze);
+            Random random = new Random(seed);
+
+            boolean[] visited = new boolean[grid.getSquareCount()];
+            visited[maze.getStartIndex()] = true;
+
+            while (!visited[maze.getTargetIndex()])
+            {
+                int index = random.nextInt(visited.length);
+                int n = target.visit(index);
+                visited[index] = true;
+
+                boolean[] reachable = findTrajectories(maze, visited);
+                for (int k = 0; k < n; k++)
+                {
+                    int killed = target.getKilledSquare(k);
+                    assertFalse("killed a square with a trajectory", reachable[killed]);
+                }
+                for (int i = 0; i < visited.length && !visited[maze.getTargetIndex()]; i++)
+                {
+                    assertEquals("wrong dead flag", !reachable[i], target.isDead(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link DeadEndChecker#reset()}.
+     */
+    @Test
+    public final void DEC_testReset_01()
+    {
+        Maze maze = createMaze(5);
+        MazeGrid grid = maze.getGrid();
+        DeadEndChecker target = new DeadEndChecker(maze);
+
+        // Visit the squares row by row.
+        for (int i = 0; i < grid.getSquareCount(); i++)
+        {
+            target.visit(i);
+        }
+
+        target.reset();
+        DeadEndChecker expected = new DeadEndChecker(maze);
+
+        for (int i = 0; i < grid.getSquareCount(); i++)
+        {
+            assertEquals("wrong dead flag", expected.isDead(i), target.isDead(i));
+        }
+    }
+
+    /**
+     * Test method for {@link SolverFactory#solveAndMeasure(Maze, String)} with an efficient solver.
+     */
+    @Test
+    public final void DEC_testEfficientSolver_01()
+    {
+        for (int seed = 0; seed < 10; seed++)
+        {
+            Maze maze = createMaze(seed);
+            String strategyName = SolverFactory.EfficientPrefix + "RandomBacktracker";
+            SolverStatistics stats = SolverFactory.solveAndMeasure(maze, strategyName);
+
+            assertTrue("maze is not solved", maze.isSolved());
+            assertEquals("wrong strategy name", strategyName, stats.getStrategyName());
+        }
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * @param seed Initialization of the random number generator.
+     * @return A small, completely built maze.
+     */
+    private static Maze createMaze(int seed)
+    {
+        Maze result = new Maze(24, 16, 1, seed);
+        result.createMaze();
+        result.reset();
+        return result;
+    }
+
+    /**
+     * @param maze A maze.
+     * @param visited The visited squares.
+     * @return For every square: true if there is a path through unvisited squares to the target, regardless of walls.
+     */
+    private static boolean[] findTrajectories(Maze maze, boolean[] visited)
+    {
+        MazeGrid grid = maze.getGrid();
+        boolean[] result = new boolean[visited.length];
+        int[] queue = new int[visited.length];
+        int head = 0, tail = 0;
+
+        if (!visited[maze.getTargetIndex()])
+        {
+            result[maze.getTargetIndex()] = true;
+            queue[tail++] = maze.getTargetIndex();
+        }
+
+        while (head < tail)
+        {
+            int i = queue[head++];
+            for (WallPosition wp : WallPosition.values())
+            {
+                int j = grid.getNeighborIndex(i, wp);
+                if (j >= 0 && !visited[j] && !result[j])
+                {
+                    result[j] = true;
+                    queue[tail++] = j;
+                }
+            }
+        }
+
+        return result;
+    }
+}
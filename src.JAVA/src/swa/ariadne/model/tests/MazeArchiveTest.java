@@ -0,0 +1,78 @@
+package swa.ariadne.model.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeArchive;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.PathFinder;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * Test class for swa.ariadne.model.MazeArchive.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class MazeArchiveTest
+{
+    //--------------------- Unit tests for MazeArchive
+
+    /**
+     * Test method for {@link MazeArchive#write(File, List)} and {@link MazeArchive#getMaze(int)}.
+     * @throws IOException When the temporary file cannot be used.
+     */
+    @Test
+    public final void MA_testWriteAndLoad_01() throws IOException
+    {
+        List<Maze> mazes = new ArrayList<Maze>();
+        for (int i = 0; i < 10; i++)
+        {
+            Maze maze = new Maze(20 + 3 * i, 15 + 2 * i, i % 2, 10 * i);
+            if (i % 3 == 0)
+            {
+                maze.reserveRectangle(4, 4, 6, 5, null);
+            }
+            maze.createMaze();
+            mazes.add(maze);
+        }
+
+        File file = File.createTempFile("MazeArchiveTest", ".bin");
+        try
+        {
+            MazeArchive.write(file, mazes);
+            MazeArchive target = MazeArchive.open(file);
+
+            assertEquals("wrong size", mazes.size(), target.size());
+            for (int k = 0; k < mazes.size(); k++)
+            {
+                Maze expected = mazes.get(k), actual = target.getMaze(k);
+                MazeGrid g1 = expected.getGrid(), g2 = actual.getGrid();
+
+                assertEquals("wrong code", expected.getCode(), actual.getCode());
+                assertEquals("wrong start", expected.getStartIndex(), actual.getStartIndex());
+                assertEquals("wrong target", expected.getTargetIndex(), actual.getTargetIndex());
+                assertEquals("wrong square count", g1.getSquareCount(), g2.getSquareCount());
+                for (int i = 0; i < g1.getSquareCount(); i++)
+                {
+                    assertEquals("wrong maze ID", g1.getMazeId(i), g2.getMazeId(i));
+                    for (WallPosition side : WallPosition.values())
+                    {
+                        assertEquals("wrong wall", g1.getWall(i, side), g2.getWall(i, side));
+                    }
+                }
+                assertEquals("wrong solution length", PathFinder.getSolutionPath(expected).length, PathFinder.getSolutionPath(actual).length);
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
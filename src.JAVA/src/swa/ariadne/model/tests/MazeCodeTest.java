@@ -0,0 +1,73 @@
+package swa.ariadne.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeCode;
+import swa.ariadne.model.MazeCodeBatch;
+
+/**
+ * Test class for swa.ariadne.model.MazeCode and swa.ariadne.model.MazeCodeBatch.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class MazeCodeTest
+{
+    //--------------------- Unit tests for MazeCodeBatch
+
+    /**
+     * Test method for {@link MazeCodeBatch#decode(CharSequence[], int, int)} and {@link MazeCodeBatch#getCode(int)}.
+     */
+    @Test
+    public final void MC_testDecode_01()
+    {
+        int n = 40;
+        Maze[] mazes = new Maze[n];
+        String[] codes = new String[n];
+
+        for (int i = 0; i < n; i++)
+        {
+            int codeVersion = i % 2;
+            mazes[i] = new Maze(10 + i, 8 + i / 2, codeVersion, 100 * i);
+            mazes[i].createMaze();
+            codes[i] = mazes[i].getCode();
+        }
+
+        MazeCodeBatch target = new MazeCodeBatch(4);
+        assertEquals("wrong number of valid codes", n, target.decode(codes, 0, n));
+        assertEquals("wrong size", n, target.size());
+
+        for (int i = 0; i < n; i++)
+        {
+            assertEquals("wrong code version", i % 2, target.getCodeVersion(i));
+            assertEquals("wrong seed", mazes[i].getSeed(), target.getSeed(i));
+            assertEquals("wrong xSize", mazes[i].getXSize(), target.getXSize(i));
+            assertEquals("wrong ySize", mazes[i].getYSize(), target.getYSize(i));
+            assertEquals("wrong code", codes[i], target.getCode(i));
+        }
+    }
+
+    /**
+     * Test method for {@link MazeCodeBatch#decode(CharSequence[], int, int)} with invalid codes.
+     */
+    @Test
+    public final void MC_testDecode_02()
+    {
+        String[] codes = { "", "abc.de", "abc.deX", "abc.defg", "ABCD.EFGH.IJK", "zzz.zzz", "ABCD.EFGH.IJKL", "0a1.b2c" };
+        MazeCodeBatch target = new MazeCodeBatch(codes.length);
+
+        assertEquals("wrong number of valid codes", 2, target.decode(codes, 0, codes.length));
+        for (int i = 0; i < 6; i++)
+        {
+            assertFalse("should be invalid: " + codes[i], target.isValid(i));
+            assertFalse("should be invalid: " + codes[i], MazeCode.getInstance(MazeCode.DefaultCodeVersion).isValid(codes[i]));
+        }
+        assertTrue("should be valid: " + codes[6], MazeCode.getInstance(0).isValid(codes[6]));
+        assertEquals("wrong code", codes[6], target.getCode(6));
+        assertEquals("wrong code", codes[7], target.getCode(7));
+    }
+}
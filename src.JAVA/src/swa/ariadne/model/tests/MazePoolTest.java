@@ -0,0 +1,69 @@
+package swa.ariadne.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.MazePool;
+
+/**
+ * Test class for swa.ariadne.model.MazePool.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class MazePoolTest
+{
+    //--------------------- Unit tests for MazePool
+
+    /**
+     * Test method for {@link MazePool#take(Maze)} and {@link MazePool#replay(String)}.
+     */
+    @Test
+    public final void MP_testTake_01()
+    {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        MazePool target = new MazePool(2, 4, pool);
+
+        // The first maze of a layout is built on demand.
+        Maze template = createTemplate();
+        Maze m1 = target.take(template);
+        assertSame("first maze should be the template", template, m1);
+
+        // Later mazes have been built in advance.
+        pool.awaitQuiescence(10, TimeUnit.SECONDS);
+        template = createTemplate();
+        Maze m2 = target.take(template);
+        assertTrue("second maze should be pooled", template != m2);
+        assertEquals("wrong width", m1.getXSize(), m2.getXSize());
+        assertEquals("wrong height", m1.getYSize(), m2.getYSize());
+
+        MazeGrid g1 = m1.getGrid(), g2 = m2.getGrid();
+        for (int i = 0; i < g1.getSquareCount(); i++)
+        {
+            assertEquals("wrong maze ID", g1.getMazeId(i), g2.getMazeId(i));
+        }
+
+        assertSame("wrong replayed maze", m1, target.replay(m1.getCode()));
+        assertNull("unknown code", target.replay("zzz.zzz"));
+
+        pool.shutdown();
+    }
+
+    /**
+     * @return A maze with a reserved area, not yet built.
+     */
+    private static Maze createTemplate()
+    {
+        Maze result = new Maze(30, 20);
+        result.reserveRectangle(5, 6, 8, 4, null);
+        return result;
+    }
+}
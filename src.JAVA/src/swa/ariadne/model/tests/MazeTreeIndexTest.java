@@ -0,0 +1,146 @@
+package swa.ariadne.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import swa.ariadne.model.Maze;
+import swa.ariadne.model.MazeGrid;
+import swa.ariadne.model.MazeTreeIndex;
+import swa.ariadne.model.PathFinder;
+import swa.ariadne.model.WallPosition;
+
+/**
+ * Test class for swa.ariadne.model.MazeTreeIndex.
+ *
+ * @author Stephan.Wacker@web.de
+ */
+public class MazeTreeIndexTest
+{
+    //--------------------- Unit tests for MazeTreeIndex
+
+    /**
+     * Test method for {@link MazeTreeIndex#getSolutionPath()} and {@link MazeTreeIndex#isOnSolutionPath(int)}.
+     */
+    @Test
+    public final void MTI_testSolutionPath_01()
+    {
+        for (int seed = 0; seed < 20; seed++)
+        {
+            Maze maze = createMaze(seed);
+            MazeTreeIndex target = maze.getTreeIndex();
+            int[] expected = PathFinder.getSolutionPath(maze);
+            int[] path = target.getSolutionPath();
+
+            assertEquals("wrong path length", expected.length, path.length);
+            assertEquals("wrong solution length", expected.length - 1, target.getSolutionLength());
+
+            int onPath = 0;
+            for (int p = 0; p < path.length; p++)
+            {
+                assertEquals("wrong path square", expected[p], path[p]);
+                assertEquals("wrong depth", p, target.getDepth(path[p]));
+                assertEquals("wrong distance", path.length - 1 - p, target.getDistanceToTarget(path[p]));
+            }
+            for (int i = 0; i < maze.getGrid().getSquareCount(); i++)
+            {
+                if (target.isOnSolutionPath(i))
+                {
+                    ++onPath;
+                    assertTrue("not an ancestor of the target", target.isAncestor(i, target.getTargetIndex()));
+                }
+            }
+            assertEquals("wrong number of squares on the path", path.length, onPath);
+        }
+    }
+
+    /**
+     * Test method for {@link MazeTreeIndex#getDistanceToTarget(int)}.
+     */
+    @Test
+    public final void MTI_testDistanceToTarget_01()
+    {
+        Maze maze = createMaze(7);
+        MazeGrid grid = maze.getGrid();
+        MazeTreeIndex target = maze.getTreeIndex();
+
+        for (int i = 0; i < grid.getSquareCount(); i++)
+        {
+            int[] path = PathFinder.findPath(grid, i, maze.getTargetIndex());
+            assertEquals("wrong distance", path.length - 1, target.getDistanceToTarget(i));
+        }
+    }
+
+    /**
+     * Test method for {@link MazeTreeIndex#getSubtreeSize(int)} and {@link MazeTreeIndex#isDeadEnd(int)}.
+     */
+    @Test
+    public final void MTI_testSubtreeSize_01()
+    {
+        Maze maze = createMaze(11);
+        MazeGrid grid = maze.getGrid();
+        MazeTreeIndex target = maze.getTreeIndex();
+        int n = grid.getSquareCount();
+
+        assertEquals("wrong connected count", n, target.getConnectedCount());
+        assertEquals("wrong root subtree size", n, target.getSubtreeSize(maze.getStartIndex()));
+
+        int deadEnds = 0;
+        for (int i = 0; i < n; i++)
+        {
+            int children = 0, sum = 1;
+            for (int j = 0; j < n; j++)
+            {
+                if (target.getParent(j) == i)
+                {
+                    ++children;
+                    sum += target.getSubtreeSize(j);
+                }
+            }
+            assertEquals("wrong subtree size", sum, target.getSubtreeSize(i));
+
+            boolean isDeadEnd = (i != maze.getStartIndex() && countOpenWalls(grid, i) == 1);
+            assertEquals("wrong dead end flag", isDeadEnd, target.isDeadEnd(i));
+            assertEquals("wrong leaf", isDeadEnd, children == 0 && i != maze.getStartIndex());
+            if (isDeadEnd)
+            {
+                ++deadEnds;
+            }
+        }
+        assertEquals("wrong dead end count", deadEnds, target.getDeadEndCount());
+        assertFalse("start is a dead end", target.isDeadEnd(maze.getStartIndex()));
+    }
+
+    //--------------------- Auxiliary methods
+
+    /**
+     * @param seed Initialization of the random number generator.
+     * @return A small, completely built maze.
+     */
+    private static Maze createMaze(int seed)
+    {
+        Maze result = new Maze(24, 16, 1, seed);
+        result.createMaze();
+        return result;
+    }
+
+    /**
+     * @param grid A grid.
+     * @param index A square index.
+     * @return Number of open walls of the given square.
+     */
+    private static int countOpenWalls(MazeGrid grid, int index)
+    {
+        int result = 0;
+        for (WallPosition wp : WallPosition.values())
+        {
+            if (grid.isOpen(index, wp))
+            {
+                ++result;
+            }
+        }
+        return result;
+    }
+}
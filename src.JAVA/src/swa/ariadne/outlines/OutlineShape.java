@@ -137,13 +137,13 @@ implements IOutlineShape
             @Override
             public boolean get(int x, int y)
             {
-                return !this.get(x, y);
+                return !OutlineShape.this.get(x, y);
             }
 
             @Override
             public Dimension getSize()
             {
-                return this.getSize();
+                return OutlineShape.this.getSize();
             }
         };
     }
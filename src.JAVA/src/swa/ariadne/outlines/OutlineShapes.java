@@ -13,7 +13,7 @@ import swa.ariadne.outlines.tiles.TilesOutlineShape;
  * <p>
  * The {@link OutlineShapeFactory} has a collection of these constructors.
  */
-final
+public final
 class OutlineShapes
 {
     /**
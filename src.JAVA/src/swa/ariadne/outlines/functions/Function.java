@@ -128,6 +128,11 @@ class Function
     public void addDistortion(Random r)
     {
         DistortionSpec[] distortionSpecs = getMasterFunction().getDistortionSpecs();
+        if (distortionSpecs == null)
+        {
+            // This function has no applicable distortions.
+            return;
+        }
         
         DistortionSpec spec = new Picker<DistortionSpec>(distortionSpecs).pick(r);
         if (spec != null)
@@ -18,6 +18,7 @@ public final class RegisteredOptions
     public static final String OPT_BLINKING = "paint blinking end square";
     public static final String OPT_EFFICIENT_SOLVERS = "use efficient solvers";
     public static final String OPT_STEPS_PER_SECOND = "steps per second";
+    public static final String OPT_BACKGROUND_SOLVER = "run solver in a background thread";
     public static final String OPT_IMAGE_NUMBER = "image number";
     public static final String OPT_IMAGE_MIN_SIZE = "image minimum size";
     public static final String OPT_IMAGE_MAX_SIZE = "image maximum size";
@@ -48,6 +49,7 @@ public final class RegisteredOptions
         defaults.put(OPT_BACKGROUND_IMAGES, false);
         defaults.put(OPT_PAINT_ALL_WALLS, false);
         defaults.put(OPT_LOG_SOLVER_STATISTICS, false);
+        defaults.put(OPT_BACKGROUND_SOLVER, false);
         defaults.put(OPT_SHOW_DETAILS_BOX, true);
         defaults.put(OPT_BLINKING, true);
         defaults.put(OPT_EFFICIENT_SOLVERS, true);
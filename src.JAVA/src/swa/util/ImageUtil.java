@@ -70,6 +70,7 @@ public final class ImageUtil
      * @param transparency The specified {@link Transparency} mode.
      * @return A {@link BufferedImage} of the given dimensions
      *         that is compatible with the default screen device.
+     *         Without a screen, the image has a default RGB color model.
      */
     public static BufferedImage createBufferedImage(int width, int height, int transparency)
     {
@@ -89,6 +90,12 @@ public final class ImageUtil
             // The system does not have a screen
         }
 
+        if (result == null)
+        {
+            int type = (transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            result = new BufferedImage(width, height, type);
+        }
+
         return result;
     }
 
@@ -1,25 +1,25 @@
 package swa.util;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Creates Random number generators with distinct seeds.
  * Use this class if your application may use several {@link Random} objects at the same time.
  * The simple Random() constructor would seed them all with the (identical) current time.
+ * <p>
+ * New seeds are taken from a {@link ThreadLocalRandom}, so that threads do not compete for a shared generator.
  * 
  * @author Stephan.Wacker@web.de
  */
 public class RandomFactory
 {
-    /** Source of new seed values. */
-    private static Random r = new Random();
-
     /**
      * @return A new Random object with a random initial seed.
      */
     public static Random createRandom()
     {
-        return new Random(r.nextInt());
+        return new Random(ThreadLocalRandom.current().nextInt());
     }
 
     /**
@@ -39,6 +39,6 @@ public class RandomFactory
      */
     public static int nextInt(int limit)
     {
-        return r.nextInt(limit);
+        return ThreadLocalRandom.current().nextInt(limit);
     }
 }